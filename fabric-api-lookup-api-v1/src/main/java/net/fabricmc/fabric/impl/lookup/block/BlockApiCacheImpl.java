@@ -33,7 +33,8 @@
 	private final ServerWorld world;
 	private final BlockPos pos;
 	/**
-	 * We always cache the block entity, even if it's null. We rely on BE load and unload events to invalidate the cache when necessary.
+	 * We always cache the block entity, even if it's null. We rely on BE load and chunk unload events to invalidate the cache when necessary,
+	 * and check whether the cached block entity was removed.
 	 * blockEntityCacheValid maintains whether the cache is valid or not.
 	 */
 	private boolean blockEntityCacheValid = false;
@@ -106,7 +107,7 @@ public A find(@Nullable BlockState state, C context) {
 	@Override
 	@Nullable
 	public BlockEntity getBlockEntity() {
-		if (!blockEntityCacheValid) {
+		if (!blockEntityCacheValid || cachedBlockEntity != null && cachedBlockEntity.isRemoved()) {
 			cachedBlockEntity = world.getBlockEntity(pos);
 			blockEntityCacheValid = true;
 		}
@@ -134,8 +135,9 @@ public BlockPos getPos() {
 			((ServerWorldCache) world).fabric_invalidateCache(blockEntity.getPos());
 		});
 
-		ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
-			((ServerWorldCache) world).fabric_invalidateCache(blockEntity.getPos());
+		// Block entities removed individually are detected by getBlockEntity(), chunk unloads are handled in bulk.
+		ServerBlockEntityEvents.BLOCK_ENTITIES_UNLOAD.register((world, chunk, blockEntities) -> {
+			((ServerWorldCache) world).fabric_invalidateCaches(blockEntities);
 		});
 	}
 }
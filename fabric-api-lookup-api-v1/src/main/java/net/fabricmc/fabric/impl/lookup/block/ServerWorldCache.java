@@ -17,6 +17,9 @@
 
 package net.fabricmc.fabric.impl.lookup.block;
 
+import java.util.Collection;
+
+import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.util.math.BlockPos;
 
 /**
@@ -26,4 +29,9 @@ public interface ServerWorldCache {
 	void fabric_registerCache(BlockPos pos, BlockApiCacheImpl<?, ?> cache);
 
 	void fabric_invalidateCache(BlockPos pos);
+
+	/**
+	 * Invalidates the caches at the positions of block entities of a chunk being unloaded.
+	 */
+	void fabric_invalidateCaches(Collection<BlockEntity> blockEntities);
 }
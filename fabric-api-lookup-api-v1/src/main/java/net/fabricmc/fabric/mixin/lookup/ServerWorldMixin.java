@@ -19,6 +19,7 @@
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +27,7 @@
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 
+import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 
@@ -82,4 +84,27 @@ public void fabric_invalidateCache(BlockPos pos) {
 			apiLookupAccessesWithoutCleanup = 0;
 		}
 	}
+
+	@Override
+	public void fabric_invalidateCaches(Collection<BlockEntity> blockEntities) {
+		if (apiLookupCaches.isEmpty()) {
+			return;
+		}
+
+		for (BlockEntity blockEntity : blockEntities) {
+			List<WeakReference<BlockApiCacheImpl<?, ?>>> caches = apiLookupCaches.get(blockEntity.getPos());
+			if (caches != null) fabric_invalidateAll(caches);
+		}
+	}
+
+	@Unique
+	private static void fabric_invalidateAll(List<WeakReference<BlockApiCacheImpl<?, ?>>> caches) {
+		for (WeakReference<BlockApiCacheImpl<?, ?>> weakReference : caches) {
+			BlockApiCacheImpl<?, ?> cache = weakReference.get();
+
+			if (cache != null) {
+				cache.invalidate();
+			}
+		}
+	}
 }
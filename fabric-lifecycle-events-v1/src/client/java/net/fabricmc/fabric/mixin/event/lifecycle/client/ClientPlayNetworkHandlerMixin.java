@@ -50,7 +50,7 @@ private void onPlayerRespawn(PlayerRespawnS2CPacket packet, CallbackInfo ci) {
 				ClientEntityEvents.ENTITY_UNLOAD.invoker().onUnload(entity, this.world);
 			}
 
-			for (WorldChunk chunk : ((LoadedChunksCache) this.world).fabric_getLoadedChunks()) {
+			for (WorldChunk chunk : ((LoadedChunksCache) this.world).fabric_snapshotLoadedChunks()) {
 				for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
 					ClientBlockEntityEvents.BLOCK_ENTITY_UNLOAD.invoker().onUnload(blockEntity, this.world);
 				}
@@ -68,7 +68,7 @@ private void onPlayerRespawn(PlayerRespawnS2CPacket packet, CallbackInfo ci) {
 	private void onGameJoin(GameJoinS2CPacket packet, CallbackInfo ci) {
 		// If a world already exists, we need to unload all (block)entities in the world.
 		if (this.world != null) {
-			for (WorldChunk chunk : ((LoadedChunksCache) this.world).fabric_getLoadedChunks()) {
+			for (WorldChunk chunk : ((LoadedChunksCache) this.world).fabric_snapshotLoadedChunks()) {
 				for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
 					ClientBlockEntityEvents.BLOCK_ENTITY_UNLOAD.invoker().onUnload(blockEntity, this.world);
 				}
@@ -81,7 +81,7 @@ private void onGameJoin(GameJoinS2CPacket packet, CallbackInfo ci) {
 	private void onClearWorld(CallbackInfo ci) {
 		// If a world already exists, we need to unload all (block)entities in the world.
 		if (this.world != null) {
-			for (WorldChunk chunk : ((LoadedChunksCache) this.world).fabric_getLoadedChunks()) {
+			for (WorldChunk chunk : ((LoadedChunksCache) this.world).fabric_snapshotLoadedChunks()) {
 				for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
 					ClientBlockEntityEvents.BLOCK_ENTITY_UNLOAD.invoker().onUnload(blockEntity, this.world);
 				}
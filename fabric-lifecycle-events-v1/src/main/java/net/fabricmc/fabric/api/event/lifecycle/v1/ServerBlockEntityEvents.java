@@ -17,11 +17,16 @@
 
 package net.fabricmc.fabric.api.event.lifecycle.v1;
 
+import java.util.Collection;
+
 import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.BlockEntityType;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.chunk.WorldChunk;
 
 import net.fabricmc.fabric.api.event.Event;
 import net.fabricmc.fabric.api.event.EventFactory;
+import net.fabricmc.fabric.impl.event.lifecycle.TypeFilteredListeners;
 
 public final class ServerBlockEntityEvents {
 	private ServerBlockEntityEvents() {
@@ -50,6 +55,71 @@ private ServerBlockEntityEvents() {
 		}
 	});
 
+	/**
+	 * Called when the block entities of a chunk are about to be unloaded from a ServerWorld, because the chunk
+	 * or the world is unloaded.
+	 *
+	 * <p>This event is called once per chunk, before {@link #BLOCK_ENTITY_UNLOAD} is called for each block entity.
+	 * Listeners which handle every block entity the same way should prefer it, since unloading a chunk then costs
+	 * one call instead of one call per block entity. It is not called for chunks without block entities.
+	 *
+	 * <p>When this event is called, the block entities are still present on the world.
+	 */
+	public static final Event<ChunkUnload> BLOCK_ENTITIES_UNLOAD = EventFactory.createArrayBacked(ServerBlockEntityEvents.ChunkUnload.class, callbacks -> (world, chunk, blockEntities) -> {
+		for (ChunkUnload callback : callbacks) {
+			callback.onUnload(world, chunk, blockEntities);
+		}
+	});
+
+	private static final TypeFilteredListeners<BlockEntityType<?>, Load> LOAD_BY_TYPE = new TypeFilteredListeners<>(
+			(first, second) -> (blockEntity, world) -> {
+				first.onLoad(blockEntity, world);
+				second.onLoad(blockEntity, world);
+			},
+			table -> (blockEntity, world) -> {
+				Load listener = table.get(blockEntity.getType());
+				if (listener != null) listener.onLoad(blockEntity, world);
+			},
+			dispatcher -> BLOCK_ENTITY_LOAD.register(dispatcher)
+	);
+
+	private static final TypeFilteredListeners<BlockEntityType<?>, Unload> UNLOAD_BY_TYPE = new TypeFilteredListeners<>(
+			(first, second) -> (blockEntity, world) -> {
+				first.onUnload(blockEntity, world);
+				second.onUnload(blockEntity, world);
+			},
+			table -> (blockEntity, world) -> {
+				Unload listener = table.get(blockEntity.getType());
+				if (listener != null) listener.onUnload(blockEntity, world);
+			},
+			dispatcher -> BLOCK_ENTITY_UNLOAD.register(dispatcher)
+	);
+
+	/**
+	 * Registers a listener to {@link #BLOCK_ENTITY_LOAD} which is only called for block entities of the given types.
+	 *
+	 * <p>Filtered listeners are looked up by block entity type when the event is fired, so block entities of other
+	 * types only cost that lookup, rather than a call to each listener.
+	 * Filtered listeners registered for the same type are called in registration order.
+	 *
+	 * @param listener the listener
+	 * @param types the block entity types to call the listener for
+	 */
+	public static void registerLoad(Load listener, BlockEntityType<?>... types) {
+		LOAD_BY_TYPE.register(listener, types);
+	}
+
+	/**
+	 * Registers a listener to {@link #BLOCK_ENTITY_UNLOAD} which is only called for block entities of the given types.
+	 *
+	 * @param listener the listener
+	 * @param types the block entity types to call the listener for
+	 * @see #registerLoad(Load, BlockEntityType[])
+	 */
+	public static void registerUnload(Unload listener, BlockEntityType<?>... types) {
+		UNLOAD_BY_TYPE.register(listener, types);
+	}
+
 	@FunctionalInterface
 	public interface Load {
 		void onLoad(BlockEntity blockEntity, ServerWorld world);
@@ -59,4 +129,14 @@ public interface Load {
 	public interface Unload {
 		void onUnload(BlockEntity blockEntity, ServerWorld world);
 	}
+
+	@FunctionalInterface
+	public interface ChunkUnload {
+		/**
+		 * @param world the world
+		 * @param chunk the chunk being unloaded
+		 * @param blockEntities an unmodifiable view of the block entities of the chunk, which must not be kept
+		 */
+		void onUnload(ServerWorld world, WorldChunk chunk, Collection<BlockEntity> blockEntities);
+	}
 }
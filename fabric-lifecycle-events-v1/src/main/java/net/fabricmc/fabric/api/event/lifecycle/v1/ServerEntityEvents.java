@@ -17,7 +17,10 @@
 
 package net.fabricmc.fabric.api.event.lifecycle.v1;
 
+import java.util.Collection;
+
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
 import net.minecraft.entity.EquipmentSlot;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.item.ItemStack;
@@ -26,6 +29,7 @@
 import net.fabricmc.fabric.api.event.Event;
 import net.fabricmc.fabric.api.event.EventFactory;
 import net.fabricmc.fabric.impl.base.event.QuiltCompatEvent;
+import net.fabricmc.fabric.impl.event.lifecycle.TypeFilteredListeners;
 
 public final class ServerEntityEvents {
 	private ServerEntityEvents() {
@@ -59,6 +63,70 @@ private ServerEntityEvents() {
 			invokerGetter -> (entity, world) -> invokerGetter.get().onUnload(entity, world)
 	);
 
+	/**
+	 * Called when all the entities of a ServerWorld are about to be unloaded, because the world is unloaded.
+	 *
+	 * <p>This event is called once per world, before {@link #ENTITY_UNLOAD} is called for each entity, letting
+	 * listeners which handle every entity the same way do so in a single call.
+	 *
+	 * <p>It is only called when a world unloads. Entities also unload with their chunks, but the game unloads them
+	 * section by section, separately from the chunk itself, and {@link #ENTITY_UNLOAD} remains the only event fired for them.
+	 */
+	public static final Event<BatchUnload> WORLD_ENTITIES_UNLOAD = EventFactory.createArrayBacked(ServerEntityEvents.BatchUnload.class, callbacks -> (world, entities) -> {
+		for (BatchUnload callback : callbacks) {
+			callback.onUnload(world, entities);
+		}
+	});
+
+	private static final TypeFilteredListeners<EntityType<?>, Load> LOAD_BY_TYPE = new TypeFilteredListeners<>(
+			(first, second) -> (entity, world) -> {
+				first.onLoad(entity, world);
+				second.onLoad(entity, world);
+			},
+			table -> (entity, world) -> {
+				Load listener = table.get(entity.getType());
+				if (listener != null) listener.onLoad(entity, world);
+			},
+			dispatcher -> ENTITY_LOAD.register(dispatcher)
+	);
+
+	private static final TypeFilteredListeners<EntityType<?>, Unload> UNLOAD_BY_TYPE = new TypeFilteredListeners<>(
+			(first, second) -> (entity, world) -> {
+				first.onUnload(entity, world);
+				second.onUnload(entity, world);
+			},
+			table -> (entity, world) -> {
+				Unload listener = table.get(entity.getType());
+				if (listener != null) listener.onUnload(entity, world);
+			},
+			dispatcher -> ENTITY_UNLOAD.register(dispatcher)
+	);
+
+	/**
+	 * Registers a listener to {@link #ENTITY_LOAD} which is only called for entities of the given types.
+	 *
+	 * <p>Filtered listeners are looked up by entity type when the event is fired, so entities of other types
+	 * only cost that lookup, rather than a call to each listener.
+	 * Filtered listeners registered for the same type are called in registration order.
+	 *
+	 * @param listener the listener
+	 * @param types the entity types to call the listener for
+	 */
+	public static void registerLoad(Load listener, EntityType<?>... types) {
+		LOAD_BY_TYPE.register(listener, types);
+	}
+
+	/**
+	 * Registers a listener to {@link #ENTITY_UNLOAD} which is only called for entities of the given types.
+	 *
+	 * @param listener the listener
+	 * @param types the entity types to call the listener for
+	 * @see #registerLoad(Load, EntityType[])
+	 */
+	public static void registerUnload(Unload listener, EntityType<?>... types) {
+		UNLOAD_BY_TYPE.register(listener, types);
+	}
+
 	/**
 	 * Called during {@link LivingEntity#tick()} if the Entity's equipment has been changed or mutated.
 	 *
@@ -81,6 +149,15 @@ public interface Unload {
 		void onUnload(Entity entity, ServerWorld world);
 	}
 
+	@FunctionalInterface
+	public interface BatchUnload {
+		/**
+		 * @param world the world
+		 * @param entities an unmodifiable collection of the entities being unloaded, which must not be kept
+		 */
+		void onUnload(ServerWorld world, Collection<Entity> entities);
+	}
+
 	@FunctionalInterface
 	public interface EquipmentChange {
 		void onChange(LivingEntity livingEntity, EquipmentSlot equipmentSlot, ItemStack previousStack, ItemStack currentStack);
@@ -17,8 +17,14 @@
 
 package net.fabricmc.fabric.impl.event.lifecycle;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.entity.Entity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.world.chunk.WorldChunk;
 
 import net.fabricmc.api.ModInitializer;
@@ -41,23 +47,36 @@ public void onInitialize() {
 
 		// Fire block entity unload events.
 		// This handles the edge case where going through a portal will cause block entities to unload without warning.
-		ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
-			for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
-				ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.invoker().onUnload(blockEntity, world);
-			}
-		});
+		ServerChunkEvents.CHUNK_UNLOAD.register(LifecycleEventsImpl::unloadBlockEntities);
 
 		// We use the world unload event so worlds that are dynamically hot(un)loaded get (block) entity unload events fired when shut down.
 		ServerWorldEvents.UNLOAD.register((server, world) -> {
-			for (WorldChunk chunk : ((LoadedChunksCache) world).fabric_getLoadedChunks()) {
-				for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
-					ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.invoker().onUnload(blockEntity, world);
-				}
+			// Iterate a snapshot, listeners may cause chunks to unload.
+			for (WorldChunk chunk : ((LoadedChunksCache) world).fabric_snapshotLoadedChunks()) {
+				unloadBlockEntities(world, chunk);
 			}
 
-			for (Entity entity : world.iterateEntities()) {
+			List<Entity> entities = new ArrayList<>();
+			world.iterateEntities().forEach(entities::add);
+			ServerEntityEvents.WORLD_ENTITIES_UNLOAD.invoker().onUnload(world, Collections.unmodifiableList(entities));
+
+			for (Entity entity : entities) {
 				ServerEntityEvents.ENTITY_UNLOAD.invoker().onUnload(entity, world);
 			}
 		});
 	}
+
+	private static void unloadBlockEntities(ServerWorld world, WorldChunk chunk) {
+		Collection<BlockEntity> blockEntities = chunk.getBlockEntities().values();
+
+		if (blockEntities.isEmpty()) {
+			return;
+		}
+
+		ServerBlockEntityEvents.BLOCK_ENTITIES_UNLOAD.invoker().onUnload(world, chunk, Collections.unmodifiableCollection(blockEntities));
+
+		for (BlockEntity blockEntity : blockEntities) {
+			ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.invoker().onUnload(blockEntity, world);
+		}
+	}
 }
@@ -17,15 +17,37 @@
 
 package net.fabricmc.fabric.impl.event.lifecycle;
 
-import java.util.Set;
+import java.util.Collection;
+import java.util.List;
 
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.chunk.WorldChunk;
 
 /**
  * A simple marker interface which holds references to chunks which block entities may be loaded or unloaded from.
+ *
+ * <p>Chunks are indexed by their {@linkplain ChunkPos#toLong() packed position}. The cache is only accessed from the
+ * thread owning the world.
  */
 public interface LoadedChunksCache {
-	Set<WorldChunk> fabric_getLoadedChunks();
+	/**
+	 * {@return a live view of the loaded chunks}
+	 * The view must not be iterated while chunks may be loaded or unloaded, use {@link #fabric_snapshotLoadedChunks()} instead.
+	 */
+	Collection<WorldChunk> fabric_getLoadedChunks();
+
+	/**
+	 * {@return a copy of the loaded chunks, which can be iterated while chunks are unloaded or handed to other threads}
+	 */
+	List<WorldChunk> fabric_snapshotLoadedChunks();
+
+	/**
+	 * {@return the loaded chunk at a packed chunk position, or {@code null} if it is not loaded}
+	 */
+	@Nullable
+	WorldChunk fabric_getLoadedChunk(long pos);
 
 	/**
 	 * Marks a chunk as loaded in a world.
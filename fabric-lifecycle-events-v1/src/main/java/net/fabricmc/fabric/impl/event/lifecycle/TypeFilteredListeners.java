@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.event.lifecycle;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per-type dispatch table for listeners which only care about some entity or block entity types.
+ *
+ * <p>A single dispatcher is registered on the backing event the first time a filtered listener is registered,
+ * and only calls the listeners registered for the type of the entity or block entity the event is fired for.
+ * The table is copied on registration, so dispatching never needs to lock.
+ *
+ * @param <K> the type key, e.g. {@link net.minecraft.entity.EntityType}
+ * @param <L> the listener type
+ */
+public final class TypeFilteredListeners<K, L> {
+	private final BinaryOperator<L> combiner;
+	private final Function<TypeFilteredListeners<K, L>, L> dispatcherFactory;
+	private final Consumer<L> dispatcherRegistrar;
+	private volatile Map<K, L> listeners = Map.of();
+	private boolean registered = false;
+
+	/**
+	 * @param combiner combines two listeners registered for the same type into one calling both in order
+	 * @param dispatcherFactory creates the listener registered on the backing event, which should look up its listener with {@link #get}
+	 * @param dispatcherRegistrar registers the dispatcher on the backing event
+	 */
+	public TypeFilteredListeners(BinaryOperator<L> combiner, Function<TypeFilteredListeners<K, L>, L> dispatcherFactory, Consumer<L> dispatcherRegistrar) {
+		this.combiner = combiner;
+		this.dispatcherFactory = dispatcherFactory;
+		this.dispatcherRegistrar = dispatcherRegistrar;
+	}
+
+	/**
+	 * Returns the listener for the given type, or {@code null} if no listener was registered for it.
+	 */
+	@Nullable
+	public L get(K type) {
+		return listeners.get(type);
+	}
+
+	@SafeVarargs
+	public final synchronized void register(L listener, K... types) {
+		Objects.requireNonNull(listener, "listener");
+
+		if (types.length == 0) {
+			throw new IllegalArgumentException("At least one type must be given");
+		}
+
+		// A type given twice must not call the listener twice.
+		Set<K> uniqueTypes = new ReferenceOpenHashSet<>(types.length);
+
+		for (K type : types) {
+			uniqueTypes.add(Objects.requireNonNull(type, "type"));
+		}
+
+		Map<K, L> copy = new Reference2ObjectOpenHashMap<>(listeners);
+
+		for (K type : uniqueTypes) {
+			copy.merge(type, listener, combiner);
+		}
+
+		listeners = copy;
+
+		if (!registered) {
+			registered = true;
+			dispatcherRegistrar.accept(dispatcherFactory.apply(this));
+		}
+	}
+}
@@ -17,9 +17,13 @@
 
 package net.fabricmc.fabric.mixin.event.lifecycle;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collection;
+import java.util.List;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
@@ -39,20 +43,32 @@ public abstract class WorldMixin implements LoadedChunksCache {
 	public abstract Profiler getProfiler();
 
 	@Unique
-	private final Set<WorldChunk> loadedChunks = new HashSet<>();
+	private final Long2ObjectMap<WorldChunk> loadedChunks = new Long2ObjectOpenHashMap<>();
 
 	@Override
-	public Set<WorldChunk> fabric_getLoadedChunks() {
-		return this.loadedChunks;
+	public Collection<WorldChunk> fabric_getLoadedChunks() {
+		return this.loadedChunks.values();
+	}
+
+	@Override
+	public List<WorldChunk> fabric_snapshotLoadedChunks() {
+		return new ObjectArrayList<>(this.loadedChunks.values());
+	}
+
+	@Override
+	@Nullable
+	public WorldChunk fabric_getLoadedChunk(long pos) {
+		return this.loadedChunks.get(pos);
 	}
 
 	@Override
 	public void fabric_markLoaded(WorldChunk chunk) {
-		this.loadedChunks.add(chunk);
+		this.loadedChunks.put(chunk.getPos().toLong(), chunk);
 	}
 
 	@Override
 	public void fabric_markUnloaded(WorldChunk chunk) {
-		this.loadedChunks.remove(chunk);
+		// Only remove the chunk if it was not replaced by a newer chunk at the same position.
+		this.loadedChunks.remove(chunk.getPos().toLong(), chunk);
 	}
 }
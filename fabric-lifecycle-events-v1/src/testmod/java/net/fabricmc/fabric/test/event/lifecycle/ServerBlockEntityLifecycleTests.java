@@ -25,6 +25,7 @@
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.registry.Registries;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.chunk.WorldChunk;
 
 import net.fabricmc.api.ModInitializer;
@@ -57,6 +58,19 @@ public void onInitialize() {
 			}
 		});
 
+		ServerBlockEntityEvents.BLOCK_ENTITIES_UNLOAD.register((world, chunk, blockEntities) -> {
+			if (blockEntities.isEmpty()) {
+				logger.error("[SERVER] Block entities unloaded for a chunk without block entities");
+			}
+
+			for (BlockEntity blockEntity : blockEntities) {
+				// Called before the individual unload events, so every block entity is still tracked.
+				if (!this.serverBlockEntities.contains(blockEntity) || !new ChunkPos(blockEntity.getPos()).equals(chunk.getPos())) {
+					logger.error("[SERVER] Unexpected block entity unloaded with chunk " + chunk.getPos() + ": " + blockEntity);
+				}
+			}
+		});
+
 		ServerTickEvents.END_SERVER_TICK.register(minecraftServer -> {
 			if (minecraftServer.getTicks() % 200 == 0) {
 				int entities = 0;
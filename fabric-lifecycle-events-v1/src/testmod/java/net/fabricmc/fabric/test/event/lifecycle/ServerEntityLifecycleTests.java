@@ -24,6 +24,7 @@
 import org.slf4j.Logger;
 
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
 import net.minecraft.server.world.ServerWorld;
 
 import net.fabricmc.api.ModInitializer;
@@ -37,6 +38,7 @@
 public final class ServerEntityLifecycleTests implements ModInitializer {
 	private static final boolean PRINT_SERVER_ENTITY_MESSAGES = System.getProperty("fabric-lifecycle-events-testmod.printServerEntityMessages") != null;
 	private final List<Entity> serverEntities = new ArrayList<>();
+	private final List<Entity> serverItems = new ArrayList<>();
 	private int serverTicks = 0;
 
 	@Override
@@ -59,6 +61,29 @@ public void onInitialize() {
 			}
 		});
 
+		ServerEntityEvents.WORLD_ENTITIES_UNLOAD.register((world, entities) -> {
+			// Called before the individual unload events, so every entity is still tracked.
+			for (Entity entity : entities) {
+				if (!this.serverEntities.contains(entity) || entity.getWorld() != world) {
+					logger.error("[SERVER] Unexpected entity unloaded with world " + world.getRegistryKey().getValue() + ": " + entity);
+				}
+			}
+
+			if (PRINT_SERVER_ENTITY_MESSAGES) {
+				logger.info("[SERVER] Unloading " + entities.size() + " entities with " + world.getRegistryKey().getValue());
+			}
+		});
+
+		ServerEntityEvents.registerLoad((entity, world) -> {
+			if (entity.getType() != EntityType.ITEM) {
+				logger.error("[SERVER] Filtered load listener called for " + entity);
+			}
+
+			this.serverItems.add(entity);
+		}, EntityType.ITEM);
+
+		ServerEntityEvents.registerUnload((entity, world) -> this.serverItems.remove(entity), EntityType.ITEM);
+
 		ServerEntityEvents.EQUIPMENT_CHANGE.register((livingEntity, equipmentSlot, previousStack, currentStack) -> {
 			if (PRINT_SERVER_ENTITY_MESSAGES) {
 				logger.info("[SERVER] Entity equipment change: Entity: {}, Slot {}, Previous: {}, Current {} ", livingEntity, equipmentSlot.name(), previousStack, currentStack);
@@ -87,6 +112,10 @@ public void onInitialize() {
 					// Always print mismatches
 					logger.error("[SERVER] Mismatch in tracked entities and actual entities");
 				}
+
+				if (this.serverItems.size() != this.serverEntities.stream().filter(entity -> entity.getType() == EntityType.ITEM).count()) {
+					logger.error("[SERVER] Mismatch in item entities tracked by filtered listeners");
+				}
 			}
 		});
 
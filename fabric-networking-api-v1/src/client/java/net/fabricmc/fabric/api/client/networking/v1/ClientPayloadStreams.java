@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.client.networking.v1;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.api.networking.v1.PayloadStreams;
+import net.fabricmc.fabric.impl.networking.StreamConnection;
+import net.fabricmc.fabric.impl.networking.client.ClientPayloadStreamsImpl;
+
+/**
+ * Offers access to streamed transfers of large payloads on the client.
+ *
+ * @see PayloadStreams
+ */
+public final class ClientPayloadStreams {
+	/**
+	 * Streams a payload to the connected server.
+	 *
+	 * <p>The readable bytes of the payload are sent; the buffer is retained until the transfer completes.
+	 *
+	 * @param channelName the channel the payload is received on
+	 * @param payload the payload
+	 * @return the transfer
+	 * @throws IllegalStateException if the client is not connected to a server which can receive streamed payloads
+	 */
+	public static PayloadStreams.Transfer send(Identifier channelName, ByteBuf payload) {
+		StreamConnection connection = ClientPayloadStreamsImpl.getConnection();
+
+		if (connection == null || !canSend()) {
+			throw new IllegalStateException("Cannot stream payloads to the server");
+		}
+
+		return connection.send(channelName, payload);
+	}
+
+	/**
+	 * Checks if the connected server can receive streamed payloads.
+	 *
+	 * @return {@code true} if {@link #send(Identifier, ByteBuf)} can be used
+	 */
+	public static boolean canSend() {
+		return ClientPlayNetworking.canSend(StreamConnection.CHANNEL);
+	}
+
+	/**
+	 * Registers a receiver for payloads streamed by the server on a channel.
+	 *
+	 * <p>If a receiver is already registered to the {@code channelName}, this method will return {@code false}, and no change will be made.
+	 *
+	 * @param channelName the channel
+	 * @param receiver the receiver
+	 * @return {@code false} if a receiver was already registered to the channel, otherwise {@code true}
+	 */
+	public static boolean registerGlobalReceiver(Identifier channelName, ClientStreamReceiver receiver) {
+		return ClientPayloadStreamsImpl.RECEIVERS.putIfAbsent(channelName, receiver) == null;
+	}
+
+	/**
+	 * Removes the receiver of streamed payloads of a channel.
+	 *
+	 * @param channelName the channel
+	 * @return the previous receiver, or {@code null} if no receiver was registered
+	 */
+	@Nullable
+	public static ClientStreamReceiver unregisterGlobalReceiver(Identifier channelName) {
+		return ClientPayloadStreamsImpl.RECEIVERS.remove(channelName);
+	}
+
+	private ClientPayloadStreams() {
+	}
+
+	/**
+	 * Accepts or rejects the payloads streamed by the server on a channel.
+	 */
+	@FunctionalInterface
+	public interface ClientStreamReceiver {
+		/**
+		 * Opens a handler for a payload streamed by the server.
+		 *
+		 * @param length the total length of the payload, in bytes
+		 * @return the handler, or {@code null} to reject the transfer
+		 */
+		@Nullable
+		PayloadStreams.StreamHandler open(int length);
+	}
+}
@@ -33,10 +33,10 @@
 import net.minecraft.util.thread.ThreadExecutor;
 
 import net.fabricmc.fabric.api.networking.v1.FabricPacket;
-import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
 import net.fabricmc.fabric.api.networking.v1.PacketType;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.fabricmc.fabric.impl.networking.LocalPacketHandoff;
 import net.fabricmc.fabric.impl.networking.QuiltPacketSender;
 
 /**
@@ -93,7 +93,7 @@ public static boolean registerGlobalReceiver(Identifier channelName, PlayChannel
 	 * @see ClientPlayNetworking#registerReceiver(PacketType, PlayPacketHandler)
 	 */
 	public static <T extends FabricPacket> boolean registerGlobalReceiver(PacketType<T> type, PlayPacketHandler<T> handler) {
-		return registerGlobalReceiver(type.getId(), new PlayChannelHandlerProxy<T>() {
+		boolean registered = registerGlobalReceiver(type.getId(), new PlayChannelHandlerProxy<T>() {
 			@Override
 			public PlayPacketHandler<T> getOriginalHandler() {
 				return handler;
@@ -101,7 +101,7 @@ public PlayPacketHandler<T> getOriginalHandler() {
 
 			@Override
 			public void receive(MinecraftClient client, ClientPlayNetworkHandler networkHandler, PacketByteBuf buf, PacketSender sender) {
-				T packet = type.read(buf);
+				T packet = LocalPacketHandoff.read(type, buf);
 
 				if (client.isOnThread()) {
 					// Do not submit to the render thread if we're already running there.
@@ -116,6 +116,10 @@ public void receive(MinecraftClient client, ClientPlayNetworkHandler networkHand
 				}
 			}
 		});
+
+		if (registered) LocalPacketHandoff.CLIENT_RECEIVERS.add(type.getId(), true);
+
+		return registered;
 	}
 
 	/**
@@ -131,6 +135,7 @@ public void receive(MinecraftClient client, ClientPlayNetworkHandler networkHand
 	 */
 	@Nullable
 	public static PlayChannelHandler unregisterGlobalReceiver(Identifier channelName) {
+		LocalPacketHandoff.CLIENT_RECEIVERS.remove(channelName, true);
 		var old = org.quiltmc.qsl.networking.api.client.ClientPlayNetworking.unregisterGlobalReceiver(channelName);
 
 		if (old instanceof PlayChannelHandler fabric) {
@@ -157,6 +162,7 @@ public static PlayChannelHandler unregisterGlobalReceiver(Identifier channelName
 	@Nullable
 	@SuppressWarnings("unchecked")
 	public static <T extends FabricPacket> PlayPacketHandler<T> unregisterGlobalReceiver(PacketType<T> type) {
+		LocalPacketHandoff.CLIENT_RECEIVERS.remove(type.getId(), true);
 		PlayChannelHandler handler = (PlayChannelHandler) ClientNetworkingImpl.PLAY.unregisterGlobalReceiver(type.getId());
 		return handler instanceof PlayChannelHandlerProxy<?> proxy ? (PlayPacketHandler<T>) proxy.getOriginalHandler() : null;
 	}
@@ -208,7 +214,7 @@ public static boolean registerReceiver(Identifier channelName, PlayChannelHandle
 	 * @see ClientPlayConnectionEvents#INIT
 	 */
 	public static <T extends FabricPacket> boolean registerReceiver(PacketType<T> type, PlayPacketHandler<T> handler) {
-		return registerReceiver(type.getId(), new PlayChannelHandlerProxy<T>() {
+		boolean registered = registerReceiver(type.getId(), new PlayChannelHandlerProxy<T>() {
 			@Override
 			public PlayPacketHandler<T> getOriginalHandler() {
 				return handler;
@@ -216,7 +222,7 @@ public PlayPacketHandler<T> getOriginalHandler() {
 
 			@Override
 			public void receive(MinecraftClient client, ClientPlayNetworkHandler networkHandler, PacketByteBuf buf, PacketSender sender) {
-				T packet = type.read(buf);
+				T packet = LocalPacketHandoff.read(type, buf);
 
 				if (client.isOnThread()) {
 					// Do not submit to the render thread if we're already running there.
@@ -231,6 +237,15 @@ public void receive(MinecraftClient client, ClientPlayNetworkHandler networkHand
 				}
 			}
 		});
+
+		if (registered && isLocalConnection()) LocalPacketHandoff.CLIENT_RECEIVERS.add(type.getId(), false);
+
+		return registered;
+	}
+
+	private static boolean isLocalConnection() {
+		ClientPlayNetworkHandler networkHandler = MinecraftClient.getInstance().getNetworkHandler();
+		return networkHandler != null && networkHandler.getConnection().isLocal();
 	}
 
 	/**
@@ -244,6 +259,8 @@ public void receive(MinecraftClient client, ClientPlayNetworkHandler networkHand
 	 */
 	@Nullable
 	public static PlayChannelHandler unregisterReceiver(Identifier channelName) throws IllegalStateException {
+		if (isLocalConnection()) LocalPacketHandoff.CLIENT_RECEIVERS.remove(channelName, false);
+
 		var old = org.quiltmc.qsl.networking.api.client.ClientPlayNetworking.unregisterReceiver(channelName);
 
 		if (old instanceof PlayChannelHandler fabric) {
@@ -356,9 +373,13 @@ public static <T extends FabricPacket> void send(T packet) {
 		Objects.requireNonNull(packet, "Packet cannot be null");
 		Objects.requireNonNull(packet.getType(), "Packet#getType cannot return null");
 
-		PacketByteBuf buf = PacketByteBufs.create();
-		packet.write(buf);
-		send(packet.getType().getId(), buf);
+		ClientPlayNetworkHandler networkHandler = MinecraftClient.getInstance().getNetworkHandler();
+
+		if (networkHandler == null) {
+			throw new IllegalStateException("Cannot send packets when not in game!");
+		}
+
+		send(packet.getType().getId(), LocalPacketHandoff.encode(networkHandler.getConnection(), packet, LocalPacketHandoff.SERVER_RECEIVERS));
 	}
 
 	private ClientPlayNetworking() {
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPayloadStreams;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.impl.networking.StreamConnection;
+
+/**
+ * Registers the {@link StreamConnection#CHANNEL stream channel} on the client and tracks the streams of the current connection.
+ */
+public final class ClientPayloadStreamsImpl implements ClientModInitializer {
+	public static final Map<Identifier, ClientPayloadStreams.ClientStreamReceiver> RECEIVERS = new ConcurrentHashMap<>();
+	@Nullable
+	private static volatile StreamConnection connection;
+
+	@Nullable
+	public static StreamConnection getConnection() {
+		return connection;
+	}
+
+	@Override
+	public void onInitializeClient() {
+		ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> connection = new StreamConnection(sender));
+		ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+			StreamConnection current = connection;
+			connection = null;
+			if (current != null) current.close();
+		});
+
+		ClientPlayNetworking.registerGlobalReceiver(StreamConnection.CHANNEL, (client, handler, buf, responseSender) -> {
+			StreamConnection current = connection;
+
+			if (current != null) {
+				current.receive(buf, (channelName, length) -> {
+					ClientPayloadStreams.ClientStreamReceiver receiver = RECEIVERS.get(channelName);
+					return receiver == null ? null : receiver.open(length);
+				});
+			}
+		});
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.client;
+
+import java.util.Set;
+
+import net.minecraft.network.packet.s2c.play.CustomPayloadS2CPacket;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.impl.networking.PayloadBundle;
+
+/**
+ * Registers the {@link PayloadBundle#CHANNEL bundle channel}, which both declares support to the server and
+ * dispatches each bundled payload to its receiver as if it had arrived in its own packet.
+ */
+public final class PayloadBundleClient implements ClientModInitializer {
+	@Override
+	public void onInitializeClient() {
+		ClientPlayNetworking.registerGlobalReceiver(PayloadBundle.CHANNEL, (client, handler, buf, responseSender) -> {
+			Set<Identifier> received = ClientPlayNetworking.getReceived();
+
+			PayloadBundle.read(buf, (channelName, payload) -> {
+				// The payloads are slices of the bundle, which must not reach vanilla: it would reschedule an unknown
+				// channel to the client thread and release the slice there. Such payloads are dropped, as vanilla would.
+				if (received.contains(channelName)) {
+					handler.onCustomPayload(new CustomPayloadS2CPacket(channelName, payload));
+				}
+			});
+		});
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.networking.v1;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.impl.networking.NetworkMetricsImpl;
+
+/**
+ * Per-channel network traffic statistics, to help find channels that send a lot of data or packets.
+ *
+ * <p>Every custom payload and login query sent or received through a connection is counted, whichever API sent it.
+ * Counting is disabled by default, and is enabled by launching the game with {@code -Dfabric.networking.metrics=true}.
+ * When enabled, counting a packet costs two map lookups, a read lock and a few atomic additions, and payloads are neither
+ * {@linkplain ServerPlayNetworking#sendBundled bundled} nor handed over without serialization on local connections,
+ * so that each one is counted under its own channel.
+ *
+ * <p>Counters accumulate until {@link #reset()} is called. Sampling {@link #snapshot()} and resetting at a fixed
+ * interval gives rolling rates.
+ */
+public final class NetworkingMetrics {
+	/**
+	 * @return {@code true} if traffic is being counted
+	 */
+	public static boolean isEnabled() {
+		return NetworkMetricsImpl.ENABLED;
+	}
+
+	/**
+	 * Returns the statistics of every channel and direction that saw traffic since the last {@link #reset()}.
+	 * On a server, traffic is counted separately for each online player. The traffic of players who disconnected is
+	 * added to the counters without a player.
+	 *
+	 * @return a copy of the current counters, empty if metrics are disabled
+	 */
+	public static List<ChannelStats> snapshot() {
+		return NetworkMetricsImpl.snapshot();
+	}
+
+	/**
+	 * Clears all counters.
+	 */
+	public static void reset() {
+		NetworkMetricsImpl.reset();
+	}
+
+	private NetworkingMetrics() {
+	}
+
+	/**
+	 * The statistics of one channel, in one direction, for one connection.
+	 *
+	 * <p>Histograms use power-of-two buckets: bucket {@code i} counts values in {@code [2^(i-1), 2^i)},
+	 * and bucket 0 counts zeroes.
+	 *
+	 * @param channel the channel name
+	 * @param outbound {@code true} for packets sent by this side, {@code false} for received packets
+	 * @param player the player on the other side of a server connection, or {@code null} on the client and for
+	 * players who disconnected
+	 * @param packets the amount of packets
+	 * @param bytes the total payload size in bytes
+	 * @param handlerNanos the total time spent handling received packets on the network thread, in nanoseconds
+	 * @param payloadSizeHistogram the payload sizes, in bytes
+	 * @param handlerTimeHistogram the handling times of received packets, in microseconds
+	 */
+	public record ChannelStats(Identifier channel, boolean outbound, @Nullable UUID player, long packets, long bytes, long handlerNanos,
+			long[] payloadSizeHistogram, long[] handlerTimeHistogram) {
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.networking.v1;
+
+import java.util.Map;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.impl.networking.OutboundQueue;
+import net.fabricmc.fabric.impl.networking.OutboundQueueHolder;
+
+/**
+ * Limits the rate at which custom payloads are sent on a channel, and how they are prioritized against the other
+ * packets sent to a connection.
+ *
+ * <p>Each connection has a token bucket per limited channel: payloads are sent as long as the bucket holds enough
+ * bytes, and deferred to a later tick otherwise. {@linkplain Priority#LOW Low priority} payloads are also deferred
+ * while the connection is backlogged, leaving room for chunk and entity packets. Deferred payloads are sent in order
+ * for each channel, highest priority first, but may be sent after payloads of other channels sent later.
+ *
+ * <p>Limits apply to custom payloads sent on the play phase, on both sides. Channels without a limit are not affected.
+ * For example, to keep a chatty channel from saturating connections:
+ * <pre>{@code
+ * OutboundRateLimits.setLimit(MyPacket.TYPE, new OutboundRateLimits.Limit(OutboundRateLimits.Priority.LOW, 64 * 1024, 256 * 1024));
+ * }</pre>
+ */
+public final class OutboundRateLimits {
+	/**
+	 * Sets the limit of a channel, replacing any previous limit.
+	 *
+	 * @param channelName the channel
+	 * @param limit the limit
+	 */
+	public static void setLimit(Identifier channelName, Limit limit) {
+		Objects.requireNonNull(channelName, "Channel name cannot be null");
+		Objects.requireNonNull(limit, "Limit cannot be null");
+		OutboundQueue.LIMITS.put(channelName, limit);
+	}
+
+	/**
+	 * Sets the limit of the channel of a packet type, replacing any previous limit.
+	 *
+	 * @param type the packet type
+	 * @param limit the limit
+	 */
+	public static void setLimit(PacketType<?> type, Limit limit) {
+		setLimit(type.getId(), limit);
+	}
+
+	/**
+	 * Removes the limit of a channel. Payloads already deferred are still sent according to the removed limit,
+	 * and payloads sent on the channel until then are sent after them, to keep their order.
+	 *
+	 * @param channelName the channel
+	 * @return the removed limit, or {@code null} if the channel had no limit
+	 */
+	@Nullable
+	public static Limit removeLimit(Identifier channelName) {
+		return OutboundQueue.LIMITS.remove(channelName);
+	}
+
+	/**
+	 * {@return the limit of a channel, or {@code null} if the channel has no limit}
+	 *
+	 * @param channelName the channel
+	 */
+	@Nullable
+	public static Limit getLimit(Identifier channelName) {
+		return OutboundQueue.LIMITS.get(channelName);
+	}
+
+	/**
+	 * {@return the queue statistics of each limited channel, summed over all connections}
+	 */
+	public static Map<Identifier, QueueStats> getStats() {
+		return OutboundQueue.getGlobalStats();
+	}
+
+	/**
+	 * {@return the queue statistics of each limited channel for the connection of a player}
+	 *
+	 * @param player the player
+	 */
+	public static Map<Identifier, QueueStats> getStats(ServerPlayerEntity player) {
+		return ((OutboundQueueHolder) player.networkHandler.getConnection()).fabric_getOutboundQueue().getStats();
+	}
+
+	private OutboundRateLimits() {
+	}
+
+	public enum Priority {
+		/**
+		 * Deferred payloads of this priority are sent first.
+		 */
+		HIGH,
+		NORMAL,
+		/**
+		 * Payloads of this priority are also deferred while the connection is backlogged.
+		 */
+		LOW
+	}
+
+	/**
+	 * The limit of a channel.
+	 *
+	 * @param priority the priority of the payloads
+	 * @param bytesPerSecond the rate at which the bucket of a connection refills, {@link Long#MAX_VALUE} for no rate limit
+	 * @param burstBytes the capacity of the bucket of a connection, which is also the most bytes sent at once
+	 */
+	public record Limit(Priority priority, long bytesPerSecond, long burstBytes) {
+		public Limit {
+			Objects.requireNonNull(priority, "Priority cannot be null");
+
+			if (bytesPerSecond <= 0 || burstBytes <= 0) {
+				throw new IllegalArgumentException("Rate and burst must be positive");
+			}
+		}
+
+		/**
+		 * Creates a limit which only sets the priority of the payloads, without limiting their rate.
+		 *
+		 * @param priority the priority of the payloads
+		 * @return the limit
+		 */
+		public static Limit of(Priority priority) {
+			return new Limit(priority, Long.MAX_VALUE, Long.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Statistics about the payloads sent on a limited channel.
+	 *
+	 * @param queuedPackets the payloads currently deferred
+	 * @param queuedBytes the size of the payloads currently deferred
+	 * @param deferredPackets the payloads which were deferred at least once
+	 * @param sentPackets the payloads which were sent, directly or once deferred
+	 */
+	public record QueueStats(long queuedPackets, long queuedBytes, long deferredPackets, long sentPackets) {
+	}
+}
@@ -17,11 +17,21 @@
 
 package net.fabricmc.fabric.api.networking.v1;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.util.Identifier;
 
+import net.fabricmc.fabric.impl.networking.RecordPacketCodec;
+
 /**
  * A type of packet. An instance of this should be created per a {@link FabricPacket} implementation.
  * This holds the channel ID used for the packet.
@@ -32,10 +42,16 @@
 public final class PacketType<T extends FabricPacket> {
 	private final Identifier id;
 	private final Function<PacketByteBuf, T> constructor;
+	@Nullable
+	private final UnaryOperator<T> localCopier;
+	@Nullable
+	private final BiConsumer<T, PacketByteBuf> writer;
 
-	private PacketType(Identifier id, Function<PacketByteBuf, T> constructor) {
+	private PacketType(Identifier id, Function<PacketByteBuf, T> constructor, @Nullable UnaryOperator<T> localCopier, @Nullable BiConsumer<T, PacketByteBuf> writer) {
 		this.id = id;
 		this.constructor = constructor;
+		this.localCopier = localCopier;
+		this.writer = writer;
 	}
 
 	/**
@@ -46,7 +62,75 @@ private PacketType(Identifier id, Function<PacketByteBuf, T> constructor) {
 	 * @return the newly created type
 	 */
 	public static <P extends FabricPacket> PacketType<P> create(Identifier id, Function<PacketByteBuf, P> constructor) {
-		return new PacketType<>(id, constructor);
+		return new PacketType<>(id, constructor, null, null);
+	}
+
+	/**
+	 * Creates a new packet type whose packets skip serialization on local connections.
+	 *
+	 * <p>When the client and the server run in the same game instance, such as in singleplayer or for the host of
+	 * a LAN world, packets of this type are not written to a buffer: the receiver gets the result of
+	 * {@code localCopier} instead of a packet read by {@code constructor}. Immutable packets, such as records of
+	 * immutable values, can pass {@link UnaryOperator#identity()}; packets holding mutable state should return
+	 * a defensive copy, since the sender may keep using the original. Receivers are still called on the same
+	 * threads as for packets read from the network.
+	 *
+	 * <p>Packets are only handed over when the receiving side registered a {@link PacketType}-based receiver for
+	 * the type, channel handlers registered with an {@link Identifier} always receive the serialized packet.
+	 *
+	 * @param id the channel ID used for the packets
+	 * @param constructor the reader that reads the received buffer
+	 * @param localCopier the function providing the packet handed to receivers on local connections
+	 * @param <P> the type of the packet
+	 * @return the newly created type
+	 */
+	public static <P extends FabricPacket> PacketType<P> create(Identifier id, Function<PacketByteBuf, P> constructor, UnaryOperator<P> localCopier) {
+		return new PacketType<>(id, constructor, localCopier, null);
+	}
+
+	/**
+	 * Creates a new packet type for a record, generating its reader and writer from the record components.
+	 *
+	 * <p>The components are written in declaration order. Supported component types are primitives, {@link String},
+	 * {@link java.util.UUID}, {@link Identifier}, {@link net.minecraft.util.math.BlockPos},
+	 * {@link net.minecraft.item.ItemStack} and records of supported types. {@code int} and {@code long} components
+	 * annotated with {@link VarInt} are written as var ints. The reader and writer are generated once, here,
+	 * and do not box primitive components.
+	 *
+	 * <p>Unless the record, or a nested record, has a {@link net.minecraft.util.math.BlockPos} or
+	 * {@link net.minecraft.item.ItemStack} component, which may be mutable, packets of the type
+	 * {@linkplain #canSkipSerialization() skip serialization} on local connections: the receiver gets the sent
+	 * record itself.
+	 *
+	 * <p>The record still implements {@link FabricPacket#write(PacketByteBuf)}, by delegating to
+	 * {@link #write(FabricPacket, PacketByteBuf)}:
+	 * <pre>{@code
+	 * public record BoomPacket(boolean fire, @PacketType.VarInt int power, BlockPos pos) implements FabricPacket {
+	 * 	public static final PacketType<BoomPacket> TYPE = PacketType.ofRecord(new Identifier("example:boom"), BoomPacket.class);
+	 *
+	 * 	@Override
+	 * 	public void write(PacketByteBuf buf) {
+	 * 		TYPE.write(this, buf);
+	 * 	}
+	 *
+	 * 	@Override
+	 * 	public PacketType<?> getType() {
+	 * 		return TYPE;
+	 * 	}
+	 * }
+	 * }</pre>
+	 *
+	 * @param id the channel ID used for the packets
+	 * @param recordClass the class of the packet
+	 * @param <R> the type of the packet
+	 * @return the newly created type
+	 * @throws IllegalArgumentException if a component of the record has an unsupported type
+	 */
+	public static <R extends Record & FabricPacket> PacketType<R> ofRecord(Identifier id, Class<R> recordClass) {
+		RecordPacketCodec<R> codec = RecordPacketCodec.create(recordClass);
+		// Records of immutable components can be handed over as they are.
+		UnaryOperator<R> localCopier = codec.isImmutable() ? UnaryOperator.identity() : null;
+		return new PacketType<>(id, codec::read, localCopier, codec::write);
 	}
 
 	/**
@@ -69,4 +153,49 @@ public T read(PacketByteBuf buf) {
 			throw new RuntimeException("Error while handling packet \"%s\": %s".formatted(this.id, e.getMessage()), e);
 		}
 	}
+
+	/**
+	 * Writes a packet with the writer generated by {@link #ofRecord(Identifier, Class)}.
+	 * @param packet the packet
+	 * @param buf the buffer
+	 * @throws UnsupportedOperationException if this type was not created for a record
+	 */
+	public void write(T packet, PacketByteBuf buf) {
+		if (this.writer == null) {
+			throw new UnsupportedOperationException("Packet type \"%s\" was not created for a record".formatted(this.id));
+		}
+
+		this.writer.accept(packet, buf);
+	}
+
+	/**
+	 * {@return whether packets of this type skip serialization on local connections}
+	 * @see #create(Identifier, Function, UnaryOperator)
+	 */
+	public boolean canSkipSerialization() {
+		return this.localCopier != null;
+	}
+
+	/**
+	 * Copies a packet to be handed to a receiver on a local connection.
+	 * @param packet the packet sent
+	 * @return the packet to receive
+	 * @throws UnsupportedOperationException if packets of this type do not skip serialization
+	 */
+	public T copyForLocalConnection(T packet) {
+		if (this.localCopier == null) {
+			throw new UnsupportedOperationException("Packet type \"%s\" does not skip serialization".formatted(this.id));
+		}
+
+		return this.localCopier.apply(packet);
+	}
+
+	/**
+	 * Marks an {@code int} or {@code long} record component to be written as a var int by
+	 * {@link #ofRecord(Identifier, Class)}, which is shorter for small positive values.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.RECORD_COMPONENT)
+	public @interface VarInt {
+	}
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.networking.v1;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.impl.networking.PayloadStreamsImpl;
+import net.fabricmc.fabric.impl.networking.StreamConnection;
+
+/**
+ * Offers access to streamed transfers of large payloads on the server.
+ *
+ * <p>A streamed payload is split into chunks which are sent a few at a time: more chunks are only sent once the
+ * receiver has acknowledged the previous ones. Unlike a single custom payload packet, a transfer therefore does not
+ * fill the outbound queue of the connection, letting other packets through in between.
+ *
+ * <p>The receiving side must have registered a receiver for the channel of the transfer, otherwise the transfer
+ * is rejected. The receiving side also rejects transfers longer than 64 MiB, configurable with
+ * {@code -Dfabric.networking.maxStreamLength}, and more than 16 concurrent transfers, configurable with
+ * {@code -Dfabric.networking.maxIncomingStreams}. Stream handlers are called on the network thread.
+ *
+ * @see net.fabricmc.fabric.api.client.networking.v1.ClientPayloadStreams
+ */
+public final class PayloadStreams {
+	/**
+	 * Streams a payload to a player.
+	 *
+	 * <p>The readable bytes of the payload are sent; the buffer is retained until the transfer completes.
+	 *
+	 * @param player the player to send the payload to
+	 * @param channelName the channel the payload is received on
+	 * @param payload the payload
+	 * @return the transfer
+	 * @throws IllegalStateException if the player cannot receive streamed payloads
+	 */
+	public static Transfer send(ServerPlayerEntity player, Identifier channelName, ByteBuf payload) {
+		StreamConnection connection = PayloadStreamsImpl.getConnection(player.networkHandler);
+
+		if (connection == null || !ServerPlayNetworking.canSend(player, StreamConnection.CHANNEL)) {
+			throw new IllegalStateException("Player " + player.getEntityName() + " cannot receive streamed payloads");
+		}
+
+		return connection.send(channelName, payload);
+	}
+
+	/**
+	 * Checks if a player can receive streamed payloads.
+	 *
+	 * @param player the player
+	 * @return {@code true} if {@link #send(ServerPlayerEntity, Identifier, ByteBuf)} can be used
+	 */
+	public static boolean canSend(ServerPlayerEntity player) {
+		return ServerPlayNetworking.canSend(player, StreamConnection.CHANNEL);
+	}
+
+	/**
+	 * Registers a receiver for payloads streamed by clients on a channel.
+	 *
+	 * <p>If a receiver is already registered to the {@code channelName}, this method will return {@code false}, and no change will be made.
+	 *
+	 * @param channelName the channel
+	 * @param receiver the receiver
+	 * @return {@code false} if a receiver was already registered to the channel, otherwise {@code true}
+	 */
+	public static boolean registerGlobalReceiver(Identifier channelName, ServerStreamReceiver receiver) {
+		return PayloadStreamsImpl.RECEIVERS.putIfAbsent(channelName, receiver) == null;
+	}
+
+	/**
+	 * Removes the receiver of streamed payloads of a channel.
+	 *
+	 * @param channelName the channel
+	 * @return the previous receiver, or {@code null} if no receiver was registered
+	 */
+	@Nullable
+	public static ServerStreamReceiver unregisterGlobalReceiver(Identifier channelName) {
+		return PayloadStreamsImpl.RECEIVERS.remove(channelName);
+	}
+
+	private PayloadStreams() {
+	}
+
+	/**
+	 * A transfer in progress.
+	 */
+	public interface Transfer {
+		/**
+		 * {@return a future completed once the receiver has acknowledged the whole payload}
+		 * The future completes exceptionally with a {@link java.util.concurrent.CancellationException} if the
+		 * transfer is cancelled, rejected by the receiver or interrupted by a disconnection.
+		 */
+		CompletableFuture<Void> completion();
+
+		/**
+		 * Cancels the transfer, if it has not completed yet.
+		 */
+		void cancel();
+	}
+
+	/**
+	 * Handles the chunks of an incoming transfer.
+	 */
+	public interface StreamHandler {
+		/**
+		 * Handles the next chunk of the payload.
+		 *
+		 * <p>The buffer is only valid for the duration of the call.
+		 *
+		 * @param chunk the chunk
+		 */
+		void onChunk(PacketByteBuf chunk);
+
+		/**
+		 * Called after the last chunk has been handled.
+		 */
+		void onComplete();
+
+		/**
+		 * Called if the transfer is cancelled by the sender or interrupted by a disconnection.
+		 */
+		default void onCancel() {
+		}
+
+		/**
+		 * Creates a handler which collects the whole payload before handing it over.
+		 *
+		 * <p>Wrap the buffer in a {@link io.netty.buffer.ByteBufInputStream} to read it as a stream.
+		 *
+		 * @param length the length announced by the sender, used to size the buffer up to one chunk, as the buffer
+		 * grows with the received data rather than trusting the sender
+		 * @param consumer the consumer of the complete payload
+		 * @return the handler
+		 */
+		static StreamHandler collecting(int length, Consumer<PacketByteBuf> consumer) {
+			PacketByteBuf payload = new PacketByteBuf(Unpooled.buffer(Math.max(0, Math.min(length, StreamConnection.CHUNK_SIZE))));
+
+			return new StreamHandler() {
+				@Override
+				public void onChunk(PacketByteBuf chunk) {
+					payload.writeBytes(chunk);
+				}
+
+				@Override
+				public void onComplete() {
+					consumer.accept(payload);
+				}
+			};
+		}
+	}
+
+	/**
+	 * Accepts or rejects the payloads streamed by players on a channel.
+	 */
+	@FunctionalInterface
+	public interface ServerStreamReceiver {
+		/**
+		 * Opens a handler for a payload streamed by a player.
+		 *
+		 * @param player the player streaming the payload
+		 * @param length the total length of the payload, in bytes
+		 * @return the handler, or {@code null} to reject the transfer
+		 */
+		@Nullable
+		StreamHandler open(ServerPlayerEntity player, int length);
+	}
+}
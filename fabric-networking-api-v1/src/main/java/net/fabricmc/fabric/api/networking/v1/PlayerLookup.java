@@ -24,7 +24,9 @@
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.TypeFilter;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.Vec3i;
@@ -125,7 +127,18 @@ public static Collection<ServerPlayerEntity> tracking(ServerWorld world, BlockPo
 	 * @return the players around the position
 	 */
 	public static Collection<ServerPlayerEntity> around(ServerWorld world, Vec3d pos, double radius) {
-		return org.quiltmc.qsl.networking.api.PlayerLookup.around(world, pos, radius);
+		// The world's entity sections are an index of players by chunk section, kept up to date as players move.
+		// Querying them visits every section in the box though, so a linear scan wins when the radius is large
+		// compared to the amount of players in the world.
+		long sectionsPerAxis = (long) Math.ceil(radius * 2 / 16) + 1;
+		long sections = sectionsPerAxis * sectionsPerAxis * Math.min(sectionsPerAxis, world.countVerticalSections());
+
+		if (sections >= world.getPlayers().size()) {
+			return org.quiltmc.qsl.networking.api.PlayerLookup.around(world, pos, radius);
+		}
+
+		double radiusSq = radius * radius;
+		return world.getEntitiesByType(TypeFilter.instanceOf(ServerPlayerEntity.class), new Box(pos, pos).expand(radius), player -> player.squaredDistanceTo(pos) <= radiusSq);
 	}
 
 	/**
@@ -139,7 +152,8 @@ public static Collection<ServerPlayerEntity> around(ServerWorld world, Vec3d pos
 	 * @return the players around the position
 	 */
 	public static Collection<ServerPlayerEntity> around(ServerWorld world, Vec3i pos, double radius) {
-		return org.quiltmc.qsl.networking.api.PlayerLookup.around(world, pos, radius);
+		// Distances have always been measured from the corner of the position, not its center.
+		return around(world, Vec3d.of(pos), radius);
 	}
 
 	private PlayerLookup() {
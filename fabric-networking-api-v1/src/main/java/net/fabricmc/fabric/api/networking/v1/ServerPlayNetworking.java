@@ -17,6 +17,7 @@
 
 package net.fabricmc.fabric.api.networking.v1;
 
+import java.util.Collection;
 import java.util.Objects;
 import java.util.Set;
 
@@ -32,6 +33,11 @@
 import net.minecraft.util.Identifier;
 import net.minecraft.util.thread.ThreadExecutor;
 
+import net.fabricmc.fabric.impl.networking.AsyncPacketReceivers;
+import net.fabricmc.fabric.impl.networking.LocalPacketHandoff;
+import net.fabricmc.fabric.impl.networking.PayloadBundle;
+import net.fabricmc.fabric.impl.networking.PayloadBundleHolder;
+import net.fabricmc.fabric.impl.networking.PooledBuffers;
 import net.fabricmc.fabric.impl.networking.QuiltPacketSender;
 
 /**
@@ -103,7 +109,7 @@ public static boolean registerGlobalReceiver(Identifier channelName, PlayChannel
 	 * @see ServerPlayNetworking#registerReceiver(ServerPlayNetworkHandler, PacketType, PlayPacketHandler)
 	 */
 	public static <T extends FabricPacket> boolean registerGlobalReceiver(PacketType<T> type, PlayPacketHandler<T> handler) {
-		return registerGlobalReceiver(type.getId(), new PlayChannelHandlerProxy<T>() {
+		boolean registered = registerGlobalReceiver(type.getId(), new PlayChannelHandlerProxy<T>() {
 			@Override
 			public PlayPacketHandler<T> getOriginalHandler() {
 				return handler;
@@ -111,7 +117,7 @@ public PlayPacketHandler<T> getOriginalHandler() {
 
 			@Override
 			public void receive(MinecraftServer server, ServerPlayerEntity player, ServerPlayNetworkHandler networkHandler, PacketByteBuf buf, PacketSender sender) {
-				T packet = type.read(buf);
+				T packet = LocalPacketHandoff.read(type, buf);
 
 				if (server.isOnThread()) {
 					// Do not submit to the server thread if we're already running there.
@@ -126,6 +132,96 @@ public void receive(MinecraftServer server, ServerPlayerEntity player, ServerPla
 				}
 			}
 		});
+
+		if (registered) LocalPacketHandoff.SERVER_RECEIVERS.add(type.getId(), true);
+
+		return registered;
+	}
+
+	/**
+	 * Registers an asynchronous handler for a packet type.
+	 * A global receiver is registered to all connections, in the present and future.
+	 *
+	 * <p>Unlike {@link #registerGlobalReceiver(PacketType, PlayPacketHandler)}, the packet is both read and handled
+	 * on a shared worker pool, neither blocking the network thread nor the server thread. Packets from the same
+	 * player on the same channel are still handled one at a time, in the order they were received.
+	 * This is meant for packets that are expensive to decode or validate.
+	 *
+	 * <p>If a handler is already registered for the {@code type}, this method will return {@code false}, and no change will be made.
+	 *
+	 * @param type the packet type
+	 * @param handler the handler
+	 * @return {@code false} if a handler is already registered to the channel
+	 * @see #getAsyncReceiverStats()
+	 */
+	public static <T extends FabricPacket> boolean registerGlobalAsyncReceiver(PacketType<T> type, AsyncPlayPacketHandler<T> handler) {
+		boolean registered = registerGlobalReceiver(type.getId(), createAsyncChannelHandler(type, handler));
+
+		if (registered) LocalPacketHandoff.SERVER_RECEIVERS.add(type.getId(), true);
+
+		return registered;
+	}
+
+	/**
+	 * Registers an asynchronous handler for a packet type, only for the player represented by the {@link ServerPlayNetworkHandler}.
+	 *
+	 * @param networkHandler the network handler
+	 * @param type the packet type
+	 * @param handler the handler
+	 * @return {@code false} if a handler is already registered to the channel name
+	 * @see #registerGlobalAsyncReceiver(PacketType, AsyncPlayPacketHandler)
+	 */
+	public static <T extends FabricPacket> boolean registerAsyncReceiver(ServerPlayNetworkHandler networkHandler, PacketType<T> type, AsyncPlayPacketHandler<T> handler) {
+		boolean registered = registerReceiver(networkHandler, type.getId(), createAsyncChannelHandler(type, handler));
+
+		if (registered) trackLocalReceiver(networkHandler, type.getId());
+
+		return registered;
+	}
+
+	private static void trackLocalReceiver(ServerPlayNetworkHandler networkHandler, Identifier channelName) {
+		if (networkHandler.getConnection().isLocal()) LocalPacketHandoff.SERVER_RECEIVERS.add(channelName, false);
+	}
+
+	private static <T extends FabricPacket> PlayChannelHandler createAsyncChannelHandler(PacketType<T> type, AsyncPlayPacketHandler<T> handler) {
+		return (server, player, networkHandler, buf, sender) -> {
+			// The received buffer is only valid during this call, the worker reads from a copy.
+			PacketByteBuf copy = PooledBuffers.allocate();
+			copy.writeBytes(buf);
+
+			AsyncPacketReceivers.submit(networkHandler, type.getId(), () -> {
+				try {
+					if (networkHandler.isConnectionOpen()) handler.receive(LocalPacketHandoff.read(type, copy), player, sender);
+				} finally {
+					copy.release();
+				}
+			});
+		};
+	}
+
+	/**
+	 * Returns statistics about the packets handled by {@linkplain AsyncPlayPacketHandler asynchronous handlers}
+	 * since the game started. The maximum latency is reset by each call, so that it covers the time since the previous one.
+	 */
+	public static AsyncReceiverStats getAsyncReceiverStats() {
+		return AsyncPacketReceivers.getStats();
+	}
+
+	/**
+	 * Hands work back to the server thread, typically from an {@linkplain AsyncPlayPacketHandler asynchronous handler}
+	 * once the expensive part of handling a packet is done.
+	 * The task is skipped if the player disconnected in the meantime.
+	 *
+	 * @param player the player the work is for
+	 * @param task the task to run on the server thread
+	 */
+	public static void executeOnServer(ServerPlayerEntity player, Runnable task) {
+		Objects.requireNonNull(player, "Server player entity cannot be null");
+		Objects.requireNonNull(task, "Task cannot be null");
+
+		player.server.execute(() -> {
+			if (!player.isDisconnected()) task.run();
+		});
 	}
 
 	/**
@@ -141,6 +237,7 @@ public void receive(MinecraftServer server, ServerPlayerEntity player, ServerPla
 	 */
 	@Nullable
 	public static PlayChannelHandler unregisterGlobalReceiver(Identifier channelName) {
+		LocalPacketHandoff.SERVER_RECEIVERS.remove(channelName, true);
 		var old = org.quiltmc.qsl.networking.api.ServerPlayNetworking.unregisterGlobalReceiver(channelName);
 
 		if (old instanceof PlayChannelHandler fabric) {
@@ -167,6 +264,7 @@ public static PlayChannelHandler unregisterGlobalReceiver(Identifier channelName
 	@Nullable
 	@SuppressWarnings("unchecked")
 	public static <T extends FabricPacket> PlayPacketHandler<T> unregisterGlobalReceiver(PacketType<T> type) {
+		LocalPacketHandoff.SERVER_RECEIVERS.remove(type.getId(), true);
 		PlayChannelHandler handler = (PlayChannelHandler) ServerNetworkingImpl.PLAY.unregisterGlobalReceiver(type.getId());
 		return handler instanceof PlayChannelHandlerProxy<?> proxy ? (PlayPacketHandler<T>) proxy.getOriginalHandler() : null;
 	}
@@ -226,7 +324,7 @@ public static boolean registerReceiver(ServerPlayNetworkHandler networkHandler,
 	 * @see ServerPlayConnectionEvents#INIT
 	 */
 	public static <T extends FabricPacket> boolean registerReceiver(ServerPlayNetworkHandler networkHandler, PacketType<T> type, PlayPacketHandler<T> handler) {
-		return registerReceiver(networkHandler, type.getId(), new PlayChannelHandlerProxy<T>() {
+		boolean registered = registerReceiver(networkHandler, type.getId(), new PlayChannelHandlerProxy<T>() {
 			@Override
 			public PlayPacketHandler<T> getOriginalHandler() {
 				return handler;
@@ -234,7 +332,7 @@ public PlayPacketHandler<T> getOriginalHandler() {
 
 			@Override
 			public void receive(MinecraftServer server, ServerPlayerEntity player, ServerPlayNetworkHandler networkHandler2, PacketByteBuf buf, PacketSender sender) {
-				T packet = type.read(buf);
+				T packet = LocalPacketHandoff.read(type, buf);
 
 				if (server.isOnThread()) {
 					// Do not submit to the server thread if we're already running there.
@@ -249,6 +347,10 @@ public void receive(MinecraftServer server, ServerPlayerEntity player, ServerPla
 				}
 			}
 		});
+
+		if (registered) trackLocalReceiver(networkHandler, type.getId());
+
+		return registered;
 	}
 
 	/**
@@ -261,6 +363,8 @@ public void receive(MinecraftServer server, ServerPlayerEntity player, ServerPla
 	 */
 	@Nullable
 	public static PlayChannelHandler unregisterReceiver(ServerPlayNetworkHandler networkHandler, Identifier channelName) {
+		if (networkHandler.getConnection().isLocal()) LocalPacketHandoff.SERVER_RECEIVERS.remove(channelName, false);
+
 		var old = org.quiltmc.qsl.networking.api.ServerPlayNetworking.unregisterReceiver(networkHandler, channelName);
 
 		if (old instanceof PlayChannelHandler fabric) {
@@ -431,11 +535,102 @@ public static <T extends FabricPacket> void send(ServerPlayerEntity player, T pa
 		Objects.requireNonNull(packet, "Packet cannot be null");
 		Objects.requireNonNull(packet.getType(), "Packet#getType cannot return null");
 
-		PacketByteBuf buf = PacketByteBufs.create();
-		packet.write(buf);
+		PacketByteBuf buf = LocalPacketHandoff.encode(player.networkHandler.getConnection(), packet, LocalPacketHandoff.CLIENT_RECEIVERS);
 		player.networkHandler.sendPacket(createS2CPacket(packet.getType().getId(), buf));
 	}
 
+	/**
+	 * Sends a packet to multiple players.
+	 *
+	 * <p>The packet is only encoded once, and each player receives a duplicate of the same buffer.
+	 * Players whose client did not declare the ability to receive the {@linkplain FabricPacket#getType() packet type}
+	 * are skipped. This is usually combined with {@link PlayerLookup}:
+	 * <pre>{@code
+	 * ServerPlayNetworking.send(PlayerLookup.tracking(blockEntity), new MachineStatePacket(pos, state));
+	 * }</pre>
+	 *
+	 * @param players the players to send the packet to
+	 * @param packet the packet
+	 */
+	public static <T extends FabricPacket> void send(Collection<ServerPlayerEntity> players, T packet) {
+		Objects.requireNonNull(players, "Players cannot be null");
+		Objects.requireNonNull(packet, "Packet cannot be null");
+		Objects.requireNonNull(packet.getType(), "Packet#getType cannot return null");
+
+		PacketType<?> type = packet.getType();
+		PacketByteBuf buf = null;
+
+		for (ServerPlayerEntity player : players) {
+			if (!canSend(player, type)) {
+				continue;
+			}
+
+			// Encode lazily, so that nothing is written when no player can receive the packet.
+			if (buf == null) {
+				buf = PooledBuffers.encode(packet);
+			}
+
+			player.networkHandler.sendPacket(createS2CPacket(type.getId(), PacketByteBufs.duplicate(buf)));
+		}
+	}
+
+	/**
+	 * Queues a packet to a player, to be sent together with the other packets queued to that player during the
+	 * current tick, in a single packet at the end of the tick.
+	 *
+	 * <p>This saves the framing, compression and flush of a packet per payload for mods that send many small
+	 * payloads per tick. Bundled payloads are received in the order they were queued, but after any packet sent
+	 * directly during the same tick. The packet is sent immediately instead if the client can't receive bundles or
+	 * this channel, if the payload is too large to fit in a bundle, or if the channel has an
+	 * {@linkplain OutboundRateLimits outbound limit}. Bundling is also disabled while
+	 * {@linkplain NetworkingMetrics metrics} are enabled, so that every payload is counted under its own channel.
+	 *
+	 * <p>This method must be called on the server thread.
+	 *
+	 * @param player the player to send the packet to
+	 * @param channelName the channel of the packet
+	 * @param buf the payload of the packet, which is copied into the bundle
+	 */
+	public static void sendBundled(ServerPlayerEntity player, Identifier channelName, PacketByteBuf buf) {
+		Objects.requireNonNull(player, "Server player entity cannot be null");
+
+		if (PayloadBundle.canBundle(player, channelName)) {
+			((PayloadBundleHolder) player.networkHandler).fabric_getPayloadBundle().add(player.networkHandler, channelName, buf);
+		} else {
+			send(player, channelName, buf);
+		}
+	}
+
+	/**
+	 * Queues a packet to a player, to be sent together with the other packets queued to that player during the
+	 * current tick.
+	 *
+	 * <p>This method must be called on the server thread.
+	 *
+	 * @param player the player to send the packet to
+	 * @param packet the packet
+	 * @see #sendBundled(ServerPlayerEntity, Identifier, PacketByteBuf)
+	 */
+	public static <T extends FabricPacket> void sendBundled(ServerPlayerEntity player, T packet) {
+		Objects.requireNonNull(packet, "Packet cannot be null");
+		Objects.requireNonNull(packet.getType(), "Packet#getType cannot return null");
+
+		if (!PayloadBundle.canBundle(player, packet.getType().getId())) {
+			send(player, packet);
+			return;
+		}
+
+		// The bundle copies the payload, so it can be written to a scratch buffer.
+		PacketByteBuf buf = PooledBuffers.allocate();
+
+		try {
+			packet.write(buf);
+			((PayloadBundleHolder) player.networkHandler).fabric_getPayloadBundle().add(player.networkHandler, packet.getType().getId(), buf);
+		} finally {
+			buf.release();
+		}
+	}
+
 	// Helper methods
 
 	/**
@@ -520,4 +715,43 @@ default void receive(MinecraftServer server, ServerPlayerEntity player, ServerPl
 		 */
 		void receive(T packet, ServerPlayerEntity player, PacketSender responseSender);
 	}
+
+	/**
+	 * A packet handler utilizing {@link FabricPacket} that runs off the network and server threads.
+	 *
+	 * @param <T> the type of the packet
+	 * @see #registerGlobalAsyncReceiver(PacketType, AsyncPlayPacketHandler)
+	 */
+	@FunctionalInterface
+	public interface AsyncPlayPacketHandler<T extends FabricPacket> {
+		/**
+		 * Handles the incoming packet. This is called on a worker thread, and must not manipulate the world.
+		 * Once the expensive work is done, the result should be handed back to the server thread with
+		 * {@link ServerPlayNetworking#executeOnServer(ServerPlayerEntity, Runnable)}:
+		 * <pre>{@code
+		 * ServerPlayNetworking.registerGlobalAsyncReceiver(SCHEMATIC_PACKET_TYPE, (packet, player, responseSender) -> {
+		 * 	Schematic schematic = Schematic.parseAndValidate(packet.data());
+		 *
+		 * 	ServerPlayNetworking.executeOnServer(player, () -> SchematicManager.place(player, schematic));
+		 * });
+		 * }</pre>
+		 *
+		 * @param packet the packet
+		 * @param player the player that sent the packet
+		 * @param responseSender the packet sender
+		 */
+		void receive(T packet, ServerPlayerEntity player, PacketSender responseSender);
+	}
+
+	/**
+	 * Statistics about {@linkplain AsyncPlayPacketHandler asynchronous packet handling}.
+	 *
+	 * @param queuedPackets the amount of packets currently waiting for a worker
+	 * @param handledPackets the total amount of packets handled
+	 * @param averageLatencyMillis the average time between receiving a packet and starting to handle it, in milliseconds
+	 * @param maxLatencyMillis the longest time between receiving a packet and starting to handle it, in milliseconds,
+	 * since the previous call to {@link ServerPlayNetworking#getAsyncReceiverStats()}
+	 */
+	public record AsyncReceiverStats(long queuedPackets, long handledPackets, double averageLatencyMillis, double maxLatencyMillis) {
+	}
 }
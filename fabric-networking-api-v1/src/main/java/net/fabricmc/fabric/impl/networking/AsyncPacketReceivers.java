@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+
+/**
+ * Runs {@linkplain ServerPlayNetworking.AsyncPlayPacketHandler asynchronous packet handlers} on a shared worker pool.
+ *
+ * <p>Packets from the same player on the same channel are handled one at a time, in the order they were received.
+ * Each player and channel pair gets its own queue, which is drained by at most one worker at a time.
+ */
+public final class AsyncPacketReceivers {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsyncPacketReceivers.class);
+	/**
+	 * Tasks a worker handles from one queue before yielding to the other queues.
+	 */
+	private static final int DRAIN_BATCH = 16;
+
+	private static final LongAdder HANDLED = new LongAdder();
+	private static final LongAdder TOTAL_LATENCY = new LongAdder();
+	private static final AtomicLong PENDING = new AtomicLong();
+	private static final AtomicLong MAX_LATENCY = new AtomicLong();
+
+	private AsyncPacketReceivers() {
+	}
+
+	public static void submit(ServerPlayNetworkHandler handler, Identifier channelName, Runnable task) {
+		Map<Identifier, SerialQueue> queues = ((AsyncPacketQueueHolder) handler).fabric_getAsyncPacketQueues();
+		queues.computeIfAbsent(channelName, id -> new SerialQueue()).add(task);
+	}
+
+	public static ServerPlayNetworking.AsyncReceiverStats getStats() {
+		long handled = HANDLED.sum();
+		double averageLatency = handled == 0 ? 0 : TOTAL_LATENCY.sum() / (double) handled / 1_000_000.0;
+		// The maximum is reset on read, so that a single slow packet does not hide how the latency evolves afterwards.
+		return new ServerPlayNetworking.AsyncReceiverStats(PENDING.get(), handled, averageLatency, MAX_LATENCY.getAndSet(0) / 1_000_000.0);
+	}
+
+	public static final class SerialQueue {
+		private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private void add(Runnable runnable) {
+			PENDING.incrementAndGet();
+			tasks.add(new Task(runnable, System.nanoTime()));
+			schedule();
+		}
+
+		private void schedule() {
+			if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+				Pool.EXECUTOR.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			Task task;
+			int handled = 0;
+
+			while (handled++ < DRAIN_BATCH && (task = tasks.poll()) != null) {
+				PENDING.decrementAndGet();
+				long latency = System.nanoTime() - task.queuedAt();
+				TOTAL_LATENCY.add(latency);
+				MAX_LATENCY.accumulateAndGet(latency, Math::max);
+
+				try {
+					task.runnable().run();
+				} catch (Throwable t) {
+					LOGGER.error("Uncaught exception in asynchronous packet handler", t);
+				}
+
+				HANDLED.increment();
+			}
+
+			// Tasks added while draining were not scheduled, as this queue was still marked as scheduled.
+			scheduled.set(false);
+			schedule();
+		}
+	}
+
+	private record Task(Runnable runnable, long queuedAt) {
+	}
+
+	// Only start the threads once an asynchronous handler actually receives a packet.
+	private static final class Pool {
+		private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+				Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+				new ThreadFactoryBuilder().setNameFormat("Fabric Networking Worker #%d").setDaemon(true).build()
+		);
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.minecraft.network.ClientConnection;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.networking.v1.FabricPacket;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PacketType;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+
+/**
+ * Hands {@link FabricPacket}s over to the other side of a local connection without serializing them.
+ *
+ * <p>Instead of the encoded packet, the payload holds a marker made of a random per-instance key and a handoff id,
+ * which the receiver exchanges for the packet. The marker is still a regular payload, so it survives any copy made
+ * on the way, and the receiver keeps being called on the same thread as for decoded packets.
+ *
+ * <p>Packets are only handed over when the other side registered a receiver for their {@link PacketType}, since raw
+ * channel handlers would see the marker. Rate limited channels and connections with metrics enabled also get the
+ * encoded payload, so its actual size is accounted for. Handoffs which are never received expire.
+ */
+public final class LocalPacketHandoff implements ModInitializer {
+	public static final boolean ENABLED = !Boolean.getBoolean("fabric.networking.disableLocalHandoff");
+	public static final Receivers SERVER_RECEIVERS = new Receivers();
+	public static final Receivers CLIENT_RECEIVERS = new Receivers();
+
+	private static final long KEY = ThreadLocalRandom.current().nextLong();
+	private static final int MARKER_SIZE = Long.BYTES * 2;
+	private static final long EXPIRY = TimeUnit.SECONDS.toNanos(30);
+	private static final int SWEEP_INTERVAL = 256;
+	private static final AtomicLong NEXT_ID = new AtomicLong();
+	private static final Map<Long, Pending> PENDING = new ConcurrentHashMap<>();
+
+	/**
+	 * Encodes a packet, or hands it over if the connection is local and the packet type allows it.
+	 *
+	 * @param receivers the receivers on the other side of the connection
+	 */
+	public static PacketByteBuf encode(ClientConnection connection, FabricPacket packet, Receivers receivers) {
+		Identifier channelName = packet.getType().getId();
+
+		if (!ENABLED || NetworkMetricsImpl.ENABLED || !connection.isLocal() || !packet.getType().canSkipSerialization()
+				|| !receivers.contains(channelName) || OutboundQueue.LIMITS.containsKey(channelName)) {
+			return PooledBuffers.encode(packet);
+		}
+
+		long now = System.nanoTime();
+		long id = NEXT_ID.getAndIncrement();
+
+		if (id % SWEEP_INTERVAL == 0) {
+			PENDING.values().removeIf(pending -> now - pending.time > EXPIRY);
+		}
+
+		PENDING.put(id, new Pending(copy(packet.getType(), packet), now));
+
+		PacketByteBuf buf = PacketByteBufs.create();
+		buf.writeLong(KEY);
+		buf.writeLong(id);
+		return buf;
+	}
+
+	/**
+	 * Reads a packet, or takes the packet handed over if the buffer holds a marker.
+	 *
+	 * @throws IllegalStateException if the buffer holds a marker for a handoff which expired or holds another type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends FabricPacket> T read(PacketType<T> type, PacketByteBuf buf) {
+		if (type.canSkipSerialization() && buf.readableBytes() == MARKER_SIZE && buf.getLong(buf.readerIndex()) == KEY) {
+			long id = buf.getLong(buf.readerIndex() + Long.BYTES);
+			Pending pending = PENDING.remove(id);
+
+			// The marker is not an encoded packet, decoding it would only fail further down.
+			if (pending == null || pending.packet.getType() != type) {
+				throw new IllegalStateException("local handoff " + id + " expired or mismatched");
+			}
+
+			buf.skipBytes(MARKER_SIZE);
+			return (T) pending.packet;
+		}
+
+		return type.read(buf);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends FabricPacket> FabricPacket copy(PacketType<T> type, FabricPacket packet) {
+		return type.copyForLocalConnection((T) packet);
+	}
+
+	@Override
+	public void onInitialize() {
+		ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+			if (handler.getConnection().isLocal()) {
+				// Packets sent right before the connection closed are never received.
+				PENDING.clear();
+				SERVER_RECEIVERS.connection.clear();
+				CLIENT_RECEIVERS.connection.clear();
+			}
+		});
+	}
+
+	private record Pending(FabricPacket packet, long time) {
+	}
+
+	/**
+	 * The channels of one side which have a receiver reading packets with {@link #read(PacketType, PacketByteBuf)}.
+	 */
+	public static final class Receivers {
+		private final Set<Identifier> global = ConcurrentHashMap.newKeySet();
+		private final Set<Identifier> connection = ConcurrentHashMap.newKeySet();
+
+		private Receivers() {
+		}
+
+		/**
+		 * Tracks a global receiver, or a receiver of the local connection.
+		 */
+		public void add(Identifier channelName, boolean global) {
+			(global ? this.global : this.connection).add(channelName);
+		}
+
+		public void remove(Identifier channelName, boolean global) {
+			(global ? this.global : this.connection).remove(channelName);
+		}
+
+		private boolean contains(Identifier channelName) {
+			return this.global.contains(channelName) || this.connection.contains(channelName);
+		}
+	}
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.ClientConnection;
+import net.minecraft.network.listener.PacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.c2s.play.CustomPayloadC2SPacket;
+import net.minecraft.network.packet.s2c.login.LoginQueryRequestS2CPacket;
+import net.minecraft.network.packet.s2c.play.CustomPayloadS2CPacket;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.networking.v1.NetworkingMetrics;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+
+/**
+ * Backs {@link NetworkingMetrics}. Packets are counted by {@code ClientConnectionMixin} as they enter and leave
+ * a connection.
+ *
+ * <p>Counters are kept per player, then per direction and channel, so that counting a packet allocates nothing.
+ * When a player disconnects, their counters are merged into the counters without a player, so that the amount of
+ * counters stays bounded by the online players on a long-running server.
+ */
+public final class NetworkMetricsImpl implements ModInitializer {
+	public static final boolean ENABLED = Boolean.getBoolean("fabric.networking.metrics");
+	private static final int HISTOGRAM_BUCKETS = 33;
+
+	private static final Map<UUID, PlayerStats> PLAYERS = new ConcurrentHashMap<>();
+	private static final PlayerStats UNATTRIBUTED = new PlayerStats(null);
+
+	@Override
+	public void onInitialize() {
+		if (ENABLED) {
+			ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> forgetPlayer(handler.player.getUuid()));
+		}
+	}
+
+	private static void forgetPlayer(UUID player) {
+		PlayerStats stats = PLAYERS.remove(player);
+
+		if (stats != null) {
+			stats.mergeInto(UNATTRIBUTED);
+		}
+	}
+
+	/**
+	 * Returns the channel of a custom payload or login query, or {@code null} for any other packet.
+	 */
+	@Nullable
+	public static Identifier getChannel(Packet<?> packet) {
+		if (packet instanceof CustomPayloadS2CPacket payload) {
+			return payload.getChannel();
+		} else if (packet instanceof CustomPayloadC2SPacket payload) {
+			return payload.getChannel();
+		} else if (packet instanceof LoginQueryRequestS2CPacket query) {
+			return query.getChannel();
+		}
+
+		return null;
+	}
+
+	public static int getPayloadSize(Packet<?> packet) {
+		if (packet instanceof CustomPayloadS2CPacket payload) {
+			return payload.getData().readableBytes();
+		} else if (packet instanceof CustomPayloadC2SPacket payload) {
+			return payload.getData().readableBytes();
+		} else if (packet instanceof LoginQueryRequestS2CPacket query) {
+			return query.getPayload().readableBytes();
+		}
+
+		return 0;
+	}
+
+	/**
+	 * @param handlerNanos the time spent handling a received packet, or {@code -1} for sent packets
+	 */
+	public static void record(ClientConnection connection, Identifier channel, Packet<?> packet, boolean outbound, long handlerNanos) {
+		PacketListener listener = connection.getPacketListener();
+		// Packets still passing through after the disconnect are not attributed to the player, whose counters were merged.
+		PlayerStats stats = listener instanceof ServerPlayNetworkHandler handler && connection.isOpen()
+				? PLAYERS.computeIfAbsent(handler.player.getUuid(), PlayerStats::new) : UNATTRIBUTED;
+		stats.add(channel, outbound, getPayloadSize(packet), handlerNanos);
+	}
+
+	public static List<NetworkingMetrics.ChannelStats> snapshot() {
+		List<NetworkingMetrics.ChannelStats> snapshot = new ArrayList<>();
+		UNATTRIBUTED.snapshot(snapshot);
+		PLAYERS.values().forEach(stats -> stats.snapshot(snapshot));
+		return snapshot;
+	}
+
+	public static void reset() {
+		PLAYERS.clear();
+		UNATTRIBUTED.clear();
+	}
+
+	private static int bucket(long value) {
+		return Math.min(64 - Long.numberOfLeadingZeros(value), HISTOGRAM_BUCKETS - 1);
+	}
+
+	/**
+	 * The counters of one player, or of no player.
+	 *
+	 * <p>Counting holds the read lock, so that a disconnecting player's counters are only merged once no packet is
+	 * being counted for them anymore. Packets counted afterwards go to the counters without a player.
+	 */
+	private static final class PlayerStats {
+		@Nullable
+		private final UUID player;
+		private final Map<Identifier, Stats> outbound = new ConcurrentHashMap<>();
+		private final Map<Identifier, Stats> inbound = new ConcurrentHashMap<>();
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+		private boolean merged;
+
+		private PlayerStats(@Nullable UUID player) {
+			this.player = player;
+		}
+
+		private void add(Identifier channel, boolean outbound, int size, long handlerNanos) {
+			Lock readLock = lock.readLock();
+			readLock.lock();
+
+			try {
+				if (!merged) {
+					(outbound ? this.outbound : inbound).computeIfAbsent(channel, id -> new Stats()).add(size, handlerNanos);
+					return;
+				}
+			} finally {
+				readLock.unlock();
+			}
+
+			UNATTRIBUTED.add(channel, outbound, size, handlerNanos);
+		}
+
+		private void mergeInto(PlayerStats target) {
+			Lock writeLock = lock.writeLock();
+			writeLock.lock();
+
+			try {
+				merged = true;
+				outbound.forEach((channel, stats) -> target.outbound.computeIfAbsent(channel, id -> new Stats()).addAll(stats));
+				inbound.forEach((channel, stats) -> target.inbound.computeIfAbsent(channel, id -> new Stats()).addAll(stats));
+			} finally {
+				writeLock.unlock();
+			}
+		}
+
+		private void snapshot(List<NetworkingMetrics.ChannelStats> snapshot) {
+			outbound.forEach((channel, stats) -> snapshot.add(stats.toChannelStats(channel, true, player)));
+			inbound.forEach((channel, stats) -> snapshot.add(stats.toChannelStats(channel, false, player)));
+		}
+
+		private void clear() {
+			outbound.clear();
+			inbound.clear();
+		}
+	}
+
+olean outbound, @Nullable UUID player) {
+	}
+
+	private static final class Stats {
+		private final LongAdder packets = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final LongAdder handlerNanos = new LongAdder();
+		private final AtomicLongArray sizeHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+		private final AtomicLongArray handlerTimeHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+		private void add(int size, long nanos) {
+			packets.increment();
+			bytes.add(size);
+			sizeHistogram.incrementAndGet(bucket(size));
+
+			if (nanos >= 0) {
+				handlerNanos.add(nanos);
+				handlerTimeHistogram.incrementAndGet(bucket(nanos / 1000));
+			}
+		}
+
+		private void addAll(Stats other) {
+			packets.add(other.packets.sum());
+			bytes.add(other.bytes.sum());
+			handlerNanos.add(other.handlerNanos.sum());
+
+			for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+				sizeHistogram.addAndGet(i, other.sizeHistogram.get(i));
+				handlerTimeHistogram.addAndGet(i, other.handlerTimeHistogram.get(i));
+			}
+		}
+
+		private NetworkingMetrics.ChannelStats toChannelStats(Identifier channel, boolean outbound, @Nullable UUID player) {
+			long[] sizes = new long[HISTOGRAM_BUCKETS];
+			long[] handlerTimes = new long[HISTOGRAM_BUCKETS];
+
+			for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+				sizes[i] = sizeHistogram.get(i);
+				handlerTimes[i] = handlerTimeHistogram.get(i);
+			}
+
+			return new NetworkingMetrics.ChannelStats(channel, outbound, player, packets.sum(), bytes.sum(), handlerNanos.sum(), sizes, handlerTimes);
+		}
+	}
+}
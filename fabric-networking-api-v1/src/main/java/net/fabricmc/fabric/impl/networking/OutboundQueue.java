@@ -0,0 +1,221 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.PacketCallbacks;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.c2s.play.CustomPayloadC2SPacket;
+import net.minecraft.network.packet.s2c.play.CustomPayloadS2CPacket;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.api.networking.v1.OutboundRateLimits;
+
+/**
+ * The custom payloads deferred by {@linkplain OutboundRateLimits outbound limits} for one connection.
+ *
+ * <p>Payloads are offered when sent, and the queue is drained when the connection ticks. All accesses are
+ * synchronized on the queue, since payloads may be sent from any thread.
+ */
+public final class OutboundQueue {
+	public static final Map<Identifier, OutboundRateLimits.Limit> LIMITS = new ConcurrentHashMap<>();
+	private static final Map<Identifier, Counters> GLOBAL_COUNTERS = new ConcurrentHashMap<>();
+	private static final OutboundRateLimits.Priority[] PRIORITIES = OutboundRateLimits.Priority.values();
+
+	private final Map<Identifier, ChannelQueue> channels = new HashMap<>();
+	// Read without synchronization to skip the queue when nothing is limited nor deferred.
+	private volatile int queued;
+
+	/**
+	 * {@return the channel of a packet which may be limited, or {@code null} if the packet is never limited}
+	 */
+	@Nullable
+	public Identifier getLimitedChannel(Packet<?> packet) {
+		if (LIMITS.isEmpty() && queued == 0) {
+			return null;
+		} else if (packet instanceof CustomPayloadS2CPacket payload) {
+			return payload.getChannel();
+		} else if (packet instanceof CustomPayloadC2SPacket payload) {
+			return payload.getChannel();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Offers a payload which is being sent.
+	 *
+	 * @param backlogged whether the connection cannot currently keep up with the packets sent to it
+	 * @return {@code true} if the payload was deferred, {@code false} if it should be sent now
+	 */
+	public synchronized boolean offer(Identifier channelName, Packet<?> packet, @Nullable PacketCallbacks callbacks, boolean backlogged) {
+		OutboundRateLimits.Limit limit = LIMITS.get(channelName);
+		ChannelQueue channel = channels.get(channelName);
+
+		if (limit == null) {
+			// Payloads of a channel whose limit was removed only queue up behind the ones deferred before.
+			if (channel == null || channel.queue.isEmpty()) {
+				channels.remove(channelName);
+				return false;
+			}
+		} else if (channel == null) {
+			channel = new ChannelQueue(channelName, limit);
+			channels.put(channelName, channel);
+		} else {
+			channel.limit = limit;
+		}
+
+		channel.refill(System.nanoTime());
+		int size = NetworkMetricsImpl.getPayloadSize(packet);
+
+		// Payloads queued earlier on the channel go first.
+		if (channel.queue.isEmpty() && channel.trySend(size, backlogged)) {
+			return false;
+		}
+
+		channel.enqueue(new Entry(packet, callbacks, size));
+		queued++;
+		return true;
+	}
+
+	/**
+	 * Sends the deferred payloads which fit in their limit, highest priority first.
+	 */
+	public synchronized void drain(boolean backlogged, BiConsumer<Packet<?>, PacketCallbacks> sender) {
+		if (queued == 0) {
+			return;
+		}
+
+		long now = System.nanoTime();
+
+		for (OutboundRateLimits.Priority priority : PRIORITIES) {
+			for (ChannelQueue channel : channels.values()) {
+				if (channel.limit.priority() != priority || channel.queue.isEmpty()) continue;
+
+				channel.refill(now);
+
+				while (!channel.queue.isEmpty() && channel.trySend(channel.queue.peek().size, backlogged)) {
+					Entry entry = channel.dequeue();
+					queued--;
+					sender.accept(entry.packet, entry.callbacks);
+				}
+			}
+		}
+
+		// Removed limits only apply to the payloads deferred before their removal.
+		channels.entrySet().removeIf(entry -> entry.getValue().queue.isEmpty() && !LIMITS.containsKey(entry.getKey()));
+	}
+
+	/**
+	 * Drops the deferred payloads, for when the connection closes.
+	 */
+	public synchronized void clear() {
+		for (ChannelQueue channel : channels.values()) {
+			while (!channel.queue.isEmpty()) channel.dequeue();
+		}
+
+		queued = 0;
+	}
+
+	public synchronized Map<Identifier, OutboundRateLimits.QueueStats> getStats() {
+		Map<Identifier, OutboundRateLimits.QueueStats> stats = new HashMap<>();
+		channels.forEach((channelName, channel) -> stats.put(channelName, channel.getStats()));
+		return stats;
+	}
+
+	public static Map<Identifier, OutboundRateLimits.QueueStats> getGlobalStats() {
+		Map<Identifier, OutboundRateLimits.QueueStats> stats = new HashMap<>();
+		GLOBAL_COUNTERS.forEach((channelName, counters) -> stats.put(channelName, new OutboundRateLimits.QueueStats(
+				counters.queuedPackets.sum(), counters.queuedBytes.sum(), counters.deferred.sum(), counters.sent.sum()
+		)));
+		return stats;
+	}
+
+	private record Entry(Packet<?> packet, @Nullable PacketCallbacks callbacks, int size) {
+	}
+
+	private static final class Counters {
+		private final LongAdder queuedPackets = new LongAdder();
+		private final LongAdder queuedBytes = new LongAdder();
+		private final LongAdder deferred = new LongAdder();
+		private final LongAdder sent = new LongAdder();
+	}
+
+	private static final class ChannelQueue {
+		private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+		private final Counters counters = new Counters();
+		private final Counters globalCounters;
+		private OutboundRateLimits.Limit limit;
+		private double tokens;
+		private long lastRefill;
+		private long queuedBytes;
+
+		private ChannelQueue(Identifier channelName, OutboundRateLimits.Limit limit) {
+			this.globalCounters = GLOBAL_COUNTERS.computeIfAbsent(channelName, id -> new Counters());
+			this.limit = limit;
+			this.tokens = limit.burstBytes();
+			this.lastRefill = System.nanoTime();
+		}
+
+		private void refill(long now) {
+			tokens = Math.min(limit.burstBytes(), tokens + (now - lastRefill) * (limit.bytesPerSecond() / 1e9));
+			lastRefill = now;
+		}
+
+		private void enqueue(Entry entry) {
+			queue.add(entry);
+			queuedBytes += entry.size;
+			counters.deferred.increment();
+			globalCounters.deferred.increment();
+			globalCounters.queuedPackets.increment();
+			globalCounters.queuedBytes.add(entry.size);
+		}
+
+		private Entry dequeue() {
+			Entry entry = queue.poll();
+			queuedBytes -= entry.size;
+			globalCounters.queuedPackets.decrement();
+			globalCounters.queuedBytes.add(-entry.size);
+			return entry;
+		}
+
+		private boolean trySend(int size, boolean backlogged) {
+			// Payloads larger than the bucket are sent once it is full, and put the bucket in debt.
+			if (backlogged && limit.priority() == OutboundRateLimits.Priority.LOW || tokens < Math.min(size, limit.burstBytes())) {
+				return false;
+			}
+
+			tokens -= size;
+			counters.sent.increment();
+			globalCounters.sent.increment();
+			return true;
+		}
+
+		private OutboundRateLimits.QueueStats getStats() {
+			return new OutboundRateLimits.QueueStats(queue.size(), queuedBytes, counters.deferred.sum(), counters.sent.sum());
+		}
+	}
+}
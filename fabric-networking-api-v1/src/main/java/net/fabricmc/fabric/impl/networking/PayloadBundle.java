@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.function.BiConsumer;
+
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+
+/**
+ * Collects the custom payloads queued to a player during a tick, and sends them as a single packet on
+ * {@link #CHANNEL} when the player's network handler ticks.
+ *
+ * <p>The bundle is a var int payload count followed by, for each payload, its channel, its length as a var int and
+ * its bytes. Clients declare support by registering {@link #CHANNEL}; payloads for other clients are sent directly.
+ * So are payloads which must go through the connection on their own, see {@link #canBundle}.
+ *
+ * <p>A bundle is not thread-safe, it is only accessed from the server thread.
+ */
+public final class PayloadBundle {
+	public static final Identifier CHANNEL = new Identifier("fabric", "bundle");
+	/**
+	 * Bundles are flushed early rather than growing past the custom payload size limit.
+	 *
+	 * @see net.minecraft.network.packet.s2c.play.CustomPayloadS2CPacket#MAX_PAYLOAD_SIZE
+	 */
+	@SuppressWarnings("JavadocReference")
+	private static final int MAX_BUNDLE_SIZE = 0x100000;
+
+	private PacketByteBuf buf = null;
+	private int count = 0;
+
+	/**
+	 * {@return whether a payload can be bundled}
+	 * Payloads of channels with an outbound limit are sent directly so that the limit applies to them, and so are
+	 * all payloads while metrics are enabled so that they are counted under their own channel.
+	 */
+	public static boolean canBundle(ServerPlayerEntity player, Identifier channelName) {
+		return !NetworkMetricsImpl.ENABLED && !OutboundQueue.LIMITS.containsKey(channelName)
+				&& ServerPlayNetworking.canSend(player, CHANNEL) && ServerPlayNetworking.canSend(player, channelName);
+	}
+
+	public void add(ServerPlayNetworkHandler handler, Identifier channelName, PacketByteBuf payload) {
+		int length = payload.readableBytes();
+		// channel + length prefix + payload, overestimating the var ints.
+		int entrySize = channelName.toString().length() + 10 + length;
+
+		if (buf != null && buf.readableBytes() + entrySize > MAX_BUNDLE_SIZE) {
+			flush(handler);
+		}
+
+		if (entrySize > MAX_BUNDLE_SIZE) {
+			// Too large to fit in any bundle, send it on its own after the payloads queued before it.
+			flush(handler);
+			handler.sendPacket(ServerPlayNetworking.createS2CPacket(channelName, PacketByteBufs.copy(payload)));
+			return;
+		}
+
+		if (buf == null) {
+			buf = PooledBuffers.allocate();
+		}
+
+		buf.writeIdentifier(channelName);
+		buf.writeVarInt(length);
+		buf.writeBytes(payload, payload.readerIndex(), length);
+		count++;
+	}
+
+	public void flush(ServerPlayNetworkHandler handler) {
+		if (buf == null) {
+			return;
+		}
+
+		// The payloads were collected in a pooled buffer, the packet gets an exactly sized copy.
+		PacketByteBuf bundleBuf = new PacketByteBuf(Unpooled.buffer(PacketByteBuf.getVarIntLength(count) + buf.readableBytes()));
+		bundleBuf.writeVarInt(count);
+		bundleBuf.writeBytes(buf);
+		buf.release();
+		buf = null;
+		count = 0;
+
+		handler.sendPacket(ServerPlayNetworking.createS2CPacket(CHANNEL, bundleBuf));
+	}
+
+	/**
+	 * Drops the queued payloads, for when the connection closes before the bundle is flushed.
+	 */
+	public void discard() {
+		if (buf != null) {
+			buf.release();
+			buf = null;
+			count = 0;
+		}
+	}
+
+	/**
+	 * Splits a received bundle, passing each payload to the consumer in the order they were queued.
+	 */
+	public static void read(PacketByteBuf bundleBuf, BiConsumer<Identifier, PacketByteBuf> consumer) {
+		int count = bundleBuf.readVarInt();
+
+		for (int i = 0; i < count; i++) {
+			Identifier channelName = bundleBuf.readIdentifier();
+			int length = bundleBuf.readVarInt();
+			consumer.accept(channelName, PacketByteBufs.readSlice(bundleBuf, length));
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.networking.v1.PayloadStreams;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+
+/**
+ * Registers the {@link StreamConnection#CHANNEL stream channel} on the server and tracks the streams of each player.
+ */
+public final class PayloadStreamsImpl implements ModInitializer {
+	public static final Map<Identifier, PayloadStreams.ServerStreamReceiver> RECEIVERS = new ConcurrentHashMap<>();
+	private static final Map<ServerPlayNetworkHandler, StreamConnection> CONNECTIONS = new ConcurrentHashMap<>();
+
+	@Nullable
+	public static StreamConnection getConnection(ServerPlayNetworkHandler handler) {
+		return CONNECTIONS.get(handler);
+	}
+
+	@Override
+	public void onInitialize() {
+		ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> CONNECTIONS.put(handler, new StreamConnection(sender)));
+		ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+			StreamConnection connection = CONNECTIONS.remove(handler);
+			if (connection != null) connection.close();
+		});
+
+		ServerPlayNetworking.registerGlobalReceiver(StreamConnection.CHANNEL, (server, player, handler, buf, responseSender) -> {
+			StreamConnection connection = CONNECTIONS.get(handler);
+
+			if (connection != null) {
+				connection.receive(buf, (channelName, length) -> {
+					PayloadStreams.ServerStreamReceiver receiver = RECEIVERS.get(channelName);
+					return receiver == null ? null : receiver.open(player, length);
+				});
+			}
+		});
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.network.PacketByteBuf;
+
+import net.fabricmc.fabric.api.networking.v1.FabricPacket;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+
+/**
+ * Scratch buffers for the internal senders and receivers.
+ *
+ * <p>Custom payload packets never release their payload, so a pooled buffer must not end up in a packet. Pooled
+ * buffers are only used for data which stays on this side, such as the payloads collected into a bundle or the copies
+ * read by asynchronous receivers, and are released by their owner. Payloads which are sent are written into a heap
+ * buffer directly, as copying them out of a pooled buffer would cost more than it saves.
+ */
+public final class PooledBuffers {
+	public static final boolean ENABLED = !Boolean.getBoolean("fabric.networking.disablePooledBuffers");
+
+	public static PacketByteBuf allocate() {
+		return new PacketByteBuf(ENABLED ? PooledByteBufAllocator.DEFAULT.heapBuffer() : Unpooled.buffer());
+	}
+
+	/**
+	 * Writes a packet into a new heap buffer, which can be sent.
+	 */
+	public static PacketByteBuf encode(FabricPacket packet) {
+		PacketByteBuf buf = PacketByteBufs.create();
+		packet.write(buf);
+		return buf;
+	}
+
+	private PooledBuffers() {
+	}
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+
+import net.fabricmc.fabric.api.networking.v1.PacketType;
+
+/**
+ * A reader and a writer for a record, generated from its components when the packet type is created.
+ *
+ * <p>Both are method handles composed from the accessors, the canonical constructor and the helpers below, so
+ * primitive components are never boxed. The helpers are looked up by their own name: unlike the methods of
+ * {@link PacketByteBuf}, they are not remapped at runtime.
+ */
+public final class RecordPacketCodec<R extends Record> {
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	// (PacketByteBuf, Object)void
+	private final MethodHandle writer;
+	// (PacketByteBuf)Object
+	private final MethodHandle reader;
+	private final boolean immutable;
+
+	private RecordPacketCodec(MethodHandle writer, MethodHandle reader, boolean immutable) {
+		this.writer = writer.asType(MethodType.methodType(void.class, PacketByteBuf.class, Object.class));
+		this.reader = reader.asType(MethodType.methodType(Object.class, PacketByteBuf.class));
+		this.immutable = immutable;
+	}
+
+	public static <R extends Record> RecordPacketCodec<R> create(Class<R> recordClass) {
+		try {
+			Set<Class<?>> visiting = new HashSet<>();
+			return new RecordPacketCodec<>(createWriter(recordClass, visiting), createReader(recordClass, visiting), isImmutable(recordClass));
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Cannot generate a codec for record " + recordClass.getName(), e);
+		}
+	}
+
+	public void write(R value, PacketByteBuf buf) {
+		try {
+			writer.invokeExact(buf, (Object) value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new RuntimeException(t);
+		}
+	}
+
+	/**
+	 * {@return whether the records may be shared instead of copied, which is not the case if they or their nested
+	 * records have {@link BlockPos} components, possibly mutable, or {@link ItemStack} components}
+	 */
+	public boolean isImmutable() {
+		return immutable;
+	}
+
+	@SuppressWarnings("unchecked")
+	public R read(PacketByteBuf buf) {
+		try {
+			return (R) (Object) reader.invokeExact(buf);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new RuntimeException(t);
+		}
+	}
+
+	// (PacketByteBuf, R)void, writing the components in declaration order.
+	private static MethodHandle createWriter(Class<?> recordClass, Set<Class<?>> visiting) throws ReflectiveOperationException {
+		checkRecord(recordClass, visiting);
+		RecordComponent[] components = recordClass.getRecordComponents();
+		MethodHandle writer = MethodHandles.empty(MethodType.methodType(void.class, PacketByteBuf.class, recordClass));
+
+		for (int i = components.length - 1; i >= 0; i--) {
+			Method accessor = components[i].getAccessor();
+			accessor.setAccessible(true);
+			MethodHandle componentWriter = MethodHandles.filterArguments(getWriter(components[i], visiting), 1, LOOKUP.unreflect(accessor));
+			// The combiner returns nothing, it runs before the components after it.
+			writer = MethodHandles.foldArguments(writer, componentWriter);
+		}
+
+		visiting.remove(recordClass);
+		return writer;
+	}
+
+	// (PacketByteBuf)R, reading the components in declaration order.
+	private static MethodHandle createReader(Class<?> recordClass, Set<Class<?>> visiting) throws ReflectiveOperationException {
+		checkRecord(recordClass, visiting);
+		RecordComponent[] components = recordClass.getRecordComponents();
+		Class<?>[] types = new Class<?>[components.length];
+
+		for (int i = 0; i < components.length; i++) {
+			types[i] = components[i].getType();
+		}
+
+		Constructor<?> constructor = recordClass.getDeclaredConstructor(types);
+		constructor.setAccessible(true);
+
+		// (C0, ..., Cn-1, PacketByteBuf)R, each fold reads one component from the buffer, the first one outermost.
+		MethodHandle reader = MethodHandles.dropArguments(LOOKUP.unreflectConstructor(constructor), components.length, PacketByteBuf.class);
+
+		for (int i = components.length - 1; i >= 0; i--) {
+			reader = MethodHandles.foldArguments(reader, i, getReader(components[i], visiting));
+		}
+
+		visiting.remove(recordClass);
+		return reader;
+	}
+
+	// Only called once the record was checked by createWriter, so it does not contain itself.
+	private static boolean isImmutable(Class<?> recordClass) {
+		for (RecordComponent component : recordClass.getRecordComponents()) {
+			Class<?> type = component.getType();
+
+			if (type.isRecord() && !isImmutable(type) || type == BlockPos.class || type == ItemStack.class) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static void checkRecord(Class<?> recordClass, Set<Class<?>> visiting) {
+		if (!recordClass.isRecord()) {
+			throw new IllegalArgumentException(recordClass.getName() + " is not a record");
+		}
+
+		if (!visiting.add(recordClass)) {
+			throw new IllegalArgumentException("Record " + recordClass.getName() + " contains itself");
+		}
+	}
+
+	private static MethodHandle getWriter(RecordComponent component, Set<Class<?>> visiting) throws ReflectiveOperationException {
+		Class<?> type = component.getType();
+		if (type.isRecord()) return createWriter(type, visiting);
+
+		String name = "write" + getSuffix(component);
+		return LOOKUP.findStatic(RecordPacketCodec.class, name, MethodType.methodType(void.class, PacketByteBuf.class, type));
+	}
+
+	private static MethodHandle getReader(RecordComponent component, Set<Class<?>> visiting) throws ReflectiveOperationException {
+		Class<?> type = component.getType();
+		if (type.isRecord()) return createReader(type, visiting);
+
+		String name = "read" + getSuffix(component);
+		return LOOKUP.findStatic(RecordPacketCodec.class, name, MethodType.methodType(type, PacketByteBuf.class));
+	}
+
+	private static String getSuffix(RecordComponent component) {
+		Class<?> type = component.getType();
+
+		if (component.isAnnotationPresent(PacketType.VarInt.class)) {
+			if (type == int.class) return "VarInt";
+			if (type == long.class) return "VarLong";
+			throw new IllegalArgumentException("Only int and long components can be var ints: " + component);
+		}
+
+		if (type == boolean.class) return "Boolean";
+		if (type == byte.class) return "Byte";
+		if (type == short.class) return "Short";
+		if (type == char.class) return "Char";
+		if (type == int.class) return "Int";
+		if (type == long.class) return "Long";
+		if (type == float.class) return "Float";
+		if (type == double.class) return "Double";
+		if (type == String.class) return "String";
+		if (type == UUID.class) return "Uuid";
+		if (type == Identifier.class) return "Identifier";
+		if (type == BlockPos.class) return "BlockPos";
+		if (type == ItemStack.class) return "ItemStack";
+		throw new IllegalArgumentException("Unsupported record component type: " + component);
+	}
+
+	private static void writeBoolean(PacketByteBuf buf, boolean value) {
+		buf.writeBoolean(value);
+	}
+
+	private static boolean readBoolean(PacketByteBuf buf) {
+		return buf.readBoolean();
+	}
+
+	private static void writeByte(PacketByteBuf buf, byte value) {
+		buf.writeByte(value);
+	}
+
+	private static byte readByte(PacketByteBuf buf) {
+		return buf.readByte();
+	}
+
+	private static void writeShort(PacketByteBuf buf, short value) {
+		buf.writeShort(value);
+	}
+
+	private static short readShort(PacketByteBuf buf) {
+		return buf.readShort();
+	}
+
+	private static void writeChar(PacketByteBuf buf, char value) {
+		buf.writeChar(value);
+	}
+
+	private static char readChar(PacketByteBuf buf) {
+		return buf.readChar();
+	}
+
+	private static void writeInt(PacketByteBuf buf, int value) {
+		buf.writeInt(value);
+	}
+
+	private static int readInt(PacketByteBuf buf) {
+		return buf.readInt();
+	}
+
+	private static void writeVarInt(PacketByteBuf buf, int value) {
+		buf.writeVarInt(value);
+	}
+
+	private static int readVarInt(PacketByteBuf buf) {
+		return buf.readVarInt();
+	}
+
+	private static void writeLong(PacketByteBuf buf, long value) {
+		buf.writeLong(value);
+	}
+
+	private static long readLong(PacketByteBuf buf) {
+		return buf.readLong();
+	}
+
+	private static void writeVarLong(PacketByteBuf buf, long value) {
+		buf.writeVarLong(value);
+	}
+
+	private static long readVarLong(PacketByteBuf buf) {
+		return buf.readVarLong();
+	}
+
+	private static void writeFloat(PacketByteBuf buf, float value) {
+		buf.writeFloat(value);
+	}
+
+	private static float readFloat(PacketByteBuf buf) {
+		return buf.readFloat();
+	}
+
+	private static void writeDouble(PacketByteBuf buf, double value) {
+		buf.writeDouble(value);
+	}
+
+	private static double readDouble(PacketByteBuf buf) {
+		return buf.readDouble();
+	}
+
+	private static void writeString(PacketByteBuf buf, String value) {
+		buf.writeString(value);
+	}
+
+	private static String readString(PacketByteBuf buf) {
+		return buf.readString();
+	}
+
+	private static void writeUuid(PacketByteBuf buf, UUID value) {
+		buf.writeUuid(value);
+	}
+
+	private static UUID readUuid(PacketByteBuf buf) {
+		return buf.readUuid();
+	}
+
+	private static void writeIdentifier(PacketByteBuf buf, Identifier value) {
+		buf.writeIdentifier(value);
+	}
+
+	private static Identifier readIdentifier(PacketByteBuf buf) {
+		return buf.readIdentifier();
+	}
+
+	private static void writeBlockPos(PacketByteBuf buf, BlockPos value) {
+		buf.writeBlockPos(value);
+	}
+
+	private static BlockPos readBlockPos(PacketByteBuf buf) {
+		return buf.readBlockPos();
+	}
+
+	private static void writeItemStack(PacketByteBuf buf, ItemStack value) {
+		buf.writeItemStack(value);
+	}
+
+	private static ItemStack readItemStack(PacketByteBuf buf) {
+		return buf.readItemStack();
+	}
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.fabricmc.fabric.api.networking.v1.PayloadStreams;
+
+/**
+ * The streams of one connection, in both directions.
+ *
+ * <p>All messages are sent on {@link #CHANNEL} and start with a message type and the transfer id:
+ * <ul>
+ *     <li>{@code START}: the target channel and the total length;</li>
+ *     <li>{@code DATA}: the next chunk of the payload;</li>
+ *     <li>{@code END}: no more chunks follow;</li>
+ *     <li>{@code ACK}: sent back by the receiver with the total amount of bytes handled so far;</li>
+ *     <li>{@code CANCEL}: whether the sender of the transfer cancelled it, as opposed to the receiver rejecting it.</li>
+ * </ul>
+ * The sender keeps at most {@link #WINDOW_SIZE} unacknowledged bytes in flight, so a large transfer
+ * never floods the outbound queue of the connection.
+ *
+ * <p>The other side is not trusted: transfers longer than {@link #MAX_LENGTH}, beyond {@link #MAX_INCOMING}
+ * concurrent transfers, or sending more data than they announced are cancelled.
+ */
+public final class StreamConnection {
+	public static final Identifier CHANNEL = new Identifier("fabric", "stream");
+	public static final int CHUNK_SIZE = 32 * 1024;
+	public static final int WINDOW_SIZE = 8 * CHUNK_SIZE;
+	public static final int MAX_LENGTH = Integer.getInteger("fabric.networking.maxStreamLength", 64 * 1024 * 1024);
+	public static final int MAX_INCOMING = Integer.getInteger("fabric.networking.maxIncomingStreams", 16);
+
+	private static final int START = 0;
+	private static final int DATA = 1;
+	private static final int END = 2;
+	private static final int ACK = 3;
+	private static final int CANCEL = 4;
+
+	private final PacketSender sender;
+	private final AtomicInteger nextId = new AtomicInteger();
+	private final Map<Integer, Outgoing> outgoing = new ConcurrentHashMap<>();
+	private final Map<Integer, Incoming> incoming = new ConcurrentHashMap<>();
+
+	public StreamConnection(PacketSender sender) {
+		this.sender = sender;
+	}
+
+	@FunctionalInterface
+	public interface HandlerFactory {
+		@Nullable
+		PayloadStreams.StreamHandler open(Identifier channel, int length);
+	}
+
+	public PayloadStreams.Transfer send(Identifier channel, ByteBuf payload) {
+		Outgoing transfer = new Outgoing(nextId.getAndIncrement(), payload.retainedSlice());
+		outgoing.put(transfer.id, transfer);
+
+		PacketByteBuf buf = header(START, transfer.id);
+		buf.writeIdentifier(channel);
+		buf.writeVarInt(transfer.payload.readableBytes());
+		sender.sendPacket(CHANNEL, buf);
+
+		transfer.sendWindow();
+		return transfer;
+	}
+
+	public void receive(PacketByteBuf buf, HandlerFactory handlers) {
+		int type = buf.readByte();
+		int id = buf.readVarInt();
+
+		switch (type) {
+		case START -> {
+			Identifier channel = buf.readIdentifier();
+			int length = buf.readVarInt();
+
+			if (length < 0 || length > MAX_LENGTH || incoming.size() >= MAX_INCOMING || incoming.containsKey(id)) {
+				sender.sendPacket(CHANNEL, cancel(id, false));
+				return;
+			}
+
+			PayloadStreams.StreamHandler handler = handlers.open(channel, length);
+
+			if (handler == null) {
+				sender.sendPacket(CHANNEL, cancel(id, false));
+			} else {
+				incoming.put(id, new Incoming(handler, length));
+			}
+		}
+		case DATA -> {
+			Incoming transfer = incoming.get(id);
+			if (transfer == null) return;
+
+			int length = buf.readableBytes();
+
+			if (length > transfer.length - transfer.received) {
+				reject(id);
+				return;
+			}
+
+			transfer.handler.onChunk(PacketByteBufs.readSlice(buf, length));
+			transfer.received += length;
+
+			PacketByteBuf ack = header(ACK, id);
+			ack.writeVarInt(transfer.received);
+			sender.sendPacket(CHANNEL, ack);
+		}
+		case END -> {
+			Incoming transfer = incoming.get(id);
+			if (transfer == null) return;
+
+			if (transfer.received != transfer.length) {
+				reject(id);
+				return;
+			}
+
+			incoming.remove(id);
+			transfer.handler.onComplete();
+
+			// Also completes empty transfers on the sending side, which never get a data acknowledgement.
+			PacketByteBuf ack = header(ACK, id);
+			ack.writeVarInt(transfer.received);
+			sender.sendPacket(CHANNEL, ack);
+		}
+		case ACK -> {
+			Outgoing transfer = outgoing.get(id);
+			if (transfer != null) transfer.acknowledge(buf.readVarInt());
+		}
+		case CANCEL -> {
+			// Ids are only unique per direction, so the message says which side of the transfer cancelled it.
+			if (buf.readBoolean()) {
+				Incoming transfer = incoming.remove(id);
+				if (transfer != null) transfer.handler.onCancel();
+			} else {
+				Outgoing transfer = outgoing.remove(id);
+				if (transfer != null) transfer.finish(new CancellationException("Transfer was rejected by the receiver"));
+			}
+		}
+		default -> throw new IllegalArgumentException("Unknown stream message type " + type);
+		}
+	}
+
+	/**
+	 * Cancels every transfer, for when the connection closes.
+	 */
+	public void close() {
+		outgoing.values().forEach(transfer -> transfer.finish(new CancellationException("Connection closed")));
+		outgoing.clear();
+		incoming.values().forEach(transfer -> transfer.handler.onCancel());
+		incoming.clear();
+	}
+
+	/**
+	 * Cancels an incoming transfer which does not match the length its sender announced.
+	 */
+	private void reject(int id) {
+		Incoming transfer = incoming.remove(id);
+
+		if (transfer != null) {
+			transfer.handler.onCancel();
+			sender.sendPacket(CHANNEL, cancel(id, false));
+		}
+	}
+
+	private static PacketByteBuf header(int type, int id) {
+		PacketByteBuf buf = PacketByteBufs.create();
+		buf.writeByte(type);
+		buf.writeVarInt(id);
+		return buf;
+	}
+
+	private static PacketByteBuf cancel(int id, boolean bySender) {
+		PacketByteBuf buf = header(CANCEL, id);
+		buf.writeBoolean(bySender);
+		return buf;
+	}
+
+	private static final class Incoming {
+		private final PayloadStreams.StreamHandler handler;
+		private final int length;
+		private int received;
+
+		private Incoming(PayloadStreams.StreamHandler handler, int length) {
+			this.handler = handler;
+			this.length = length;
+		}
+	}
+
+	private final class Outgoing implements PayloadStreams.Transfer {
+		private final int id;
+		private final ByteBuf payload;
+		private final CompletableFuture<Void> completion = new CompletableFuture<>();
+		private int acknowledged;
+		private boolean ended;
+
+		private Outgoing(int id, ByteBuf payload) {
+			this.id = id;
+			this.payload = payload;
+		}
+
+		// Called from the sending thread first, then from the network thread as acknowledgements arrive.
+		private synchronized void sendWindow() {
+			if (completion.isDone()) {
+				return;
+			}
+
+			while (payload.isReadable() && payload.readerIndex() - acknowledged < WINDOW_SIZE) {
+				int length = Math.min(payload.readableBytes(), CHUNK_SIZE);
+				// Sized upfront, rather than growing a default buffer up to the chunk size.
+				PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer(1 + PacketByteBuf.getVarIntLength(id) + length));
+				buf.writeByte(DATA);
+				buf.writeVarInt(id);
+				buf.writeBytes(payload, length);
+				sender.sendPacket(CHANNEL, buf);
+			}
+
+			if (!payload.isReadable() && !ended) {
+				ended = true;
+				sender.sendPacket(CHANNEL, header(END, id));
+			}
+		}
+
+		private synchronized void acknowledge(int received) {
+			acknowledged = received;
+
+			if (acknowledged >= payload.writerIndex()) {
+				outgoing.remove(id);
+				finish(null);
+			} else {
+				sendWindow();
+			}
+		}
+
+		private synchronized void finish(@Nullable Throwable error) {
+			if (completion.isDone()) {
+				return;
+			}
+
+			payload.release();
+
+			if (error == null) {
+				completion.complete(null);
+			} else {
+				completion.completeExceptionally(error);
+			}
+		}
+
+		@Override
+		public CompletableFuture<Void> completion() {
+			return completion;
+		}
+
+		@Override
+		public void cancel() {
+			if (outgoing.remove(id) != null) {
+				sender.sendPacket(CHANNEL, cancel(id, true));
+				finish(new CancellationException("Transfer was cancelled"));
+			}
+		}
+	}
+}
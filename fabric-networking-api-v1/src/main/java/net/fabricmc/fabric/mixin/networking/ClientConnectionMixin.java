@@ -17,10 +17,14 @@
 
 package net.fabricmc.fabric.mixin.networking;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -30,11 +34,28 @@
 import net.minecraft.network.NetworkState;
 import net.minecraft.network.packet.Packet;
 import net.minecraft.network.PacketCallbacks;
+import net.minecraft.util.Identifier;
 
 import net.fabricmc.fabric.impl.networking.GenericFutureListenerHolder;
+import net.fabricmc.fabric.impl.networking.NetworkMetricsImpl;
+import net.fabricmc.fabric.impl.networking.OutboundQueue;
+import net.fabricmc.fabric.impl.networking.OutboundQueueHolder;
 
 @Mixin(ClientConnection.class)
-abstract class ClientConnectionMixin {
+abstract class ClientConnectionMixin implements OutboundQueueHolder {
+	@Shadow
+	private Channel channel;
+
+	@Unique
+	private final OutboundQueue fabric_outboundQueue = new OutboundQueue();
+
+	// Packets are read on the connection's event loop, one at a time.
+	@Unique
+	private long fabric_receiveStart;
+
+	@Shadow
+	protected abstract void sendImmediately(Packet<?> packet, @Nullable PacketCallbacks callbacks);
+
 	@Inject(method = "sendInternal", at = @At(value = "INVOKE_ASSIGN", target = "Lio/netty/channel/Channel;writeAndFlush(Ljava/lang/Object;)Lio/netty/channel/ChannelFuture;", remap = false), locals = LocalCapture.CAPTURE_FAILHARD, cancellable = true)
 	private void sendInternal(Packet<?> packet, @Nullable PacketCallbacks listener, NetworkState packetState, NetworkState currentState, CallbackInfo ci, ChannelFuture channelFuture) {
 		if (listener instanceof GenericFutureListenerHolder holder) {
@@ -43,4 +64,59 @@ private void sendInternal(Packet<?> packet, @Nullable PacketCallbacks listener,
 			ci.cancel();
 		}
 	}
+
+	@Inject(method = "send(Lnet/minecraft/network/packet/Packet;Lnet/minecraft/network/PacketCallbacks;)V", at = @At("HEAD"))
+	private void recordSentPacket(Packet<?> packet, @Nullable PacketCallbacks callbacks, CallbackInfo ci) {
+		if (NetworkMetricsImpl.ENABLED) {
+			Identifier channel = NetworkMetricsImpl.getChannel(packet);
+			if (channel != null) NetworkMetricsImpl.record((ClientConnection) (Object) this, channel, packet, true, -1L);
+		}
+	}
+
+	// Injected after the metrics, which count payloads when they are sent rather than when they leave the queue.
+	@Inject(method = "send(Lnet/minecraft/network/packet/Packet;Lnet/minecraft/network/PacketCallbacks;)V", at = @At("HEAD"), cancellable = true)
+	private void deferLimitedPacket(Packet<?> packet, @Nullable PacketCallbacks callbacks, CallbackInfo ci) {
+		Identifier channelName = fabric_outboundQueue.getLimitedChannel(packet);
+
+		if (channelName != null && fabric_outboundQueue.offer(channelName, packet, callbacks, fabric_isBacklogged())) {
+			ci.cancel();
+		}
+	}
+
+	@Inject(method = "tick", at = @At("HEAD"))
+	private void drainLimitedPackets(CallbackInfo ci) {
+		if (((ClientConnection) (Object) this).isOpen()) {
+			fabric_outboundQueue.drain(fabric_isBacklogged(), this::sendImmediately);
+		}
+	}
+
+	@Inject(method = "handleDisconnection", at = @At("HEAD"))
+	private void clearLimitedPackets(CallbackInfo ci) {
+		fabric_outboundQueue.clear();
+	}
+
+	@Unique
+	private boolean fabric_isBacklogged() {
+		return channel != null && !channel.isWritable();
+	}
+
+	@Override
+	public OutboundQueue fabric_getOutboundQueue() {
+		return fabric_outboundQueue;
+	}
+
+	@Inject(method = "channelRead0", at = @At("HEAD"))
+	private void startReceivedPacket(ChannelHandlerContext context, Packet<?> packet, CallbackInfo ci) {
+		if (NetworkMetricsImpl.ENABLED) {
+			fabric_receiveStart = System.nanoTime();
+		}
+	}
+
+	@Inject(method = "channelRead0", at = @At("RETURN"))
+	private void recordReceivedPacket(ChannelHandlerContext context, Packet<?> packet, CallbackInfo ci) {
+		if (NetworkMetricsImpl.ENABLED) {
+			Identifier channel = NetworkMetricsImpl.getChannel(packet);
+			if (channel != null) NetworkMetricsImpl.record((ClientConnection) (Object) this, channel, packet, false, System.nanoTime() - fabric_receiveStart);
+		}
+	}
 }
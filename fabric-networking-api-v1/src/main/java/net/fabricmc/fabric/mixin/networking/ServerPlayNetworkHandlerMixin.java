@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.mixin.networking;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.impl.networking.AsyncPacketQueueHolder;
+import net.fabricmc.fabric.impl.networking.AsyncPacketReceivers;
+import net.fabricmc.fabric.impl.networking.PayloadBundle;
+import net.fabricmc.fabric.impl.networking.PayloadBundleHolder;
+
+@Mixin(ServerPlayNetworkHandler.class)
+abstract class ServerPlayNetworkHandlerMixin implements PayloadBundleHolder, AsyncPacketQueueHolder {
+	@Unique
+	private final PayloadBundle fabric_payloadBundle = new PayloadBundle();
+	@Unique
+	private final Map<Identifier, AsyncPacketReceivers.SerialQueue> fabric_asyncPacketQueues = new ConcurrentHashMap<>();
+
+	@Override
+	public PayloadBundle fabric_getPayloadBundle() {
+		return fabric_payloadBundle;
+	}
+
+	@Override
+	public Map<Identifier, AsyncPacketReceivers.SerialQueue> fabric_getAsyncPacketQueues() {
+		return fabric_asyncPacketQueues;
+	}
+
+	// Connections tick after the worlds, so payloads bundled during this tick are sent at its end.
+	@Inject(method = "tick", at = @At("TAIL"))
+	private void flushPayloadBundle(CallbackInfo ci) {
+		fabric_payloadBundle.flush((ServerPlayNetworkHandler) (Object) this);
+	}
+
+	@Inject(method = "onDisconnected", at = @At("HEAD"))
+	private void discardPayloadBundle(Text reason, CallbackInfo ci) {
+		fabric_payloadBundle.discard();
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.CustomPayloadS2CPacket;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.api.networking.v1.OutboundRateLimits;
+
+/**
+ * Checks the token buckets of {@link OutboundQueue}. Limits refill at one byte per second, so the buckets do not
+ * noticeably refill during a test.
+ */
+public class OutboundQueueTest {
+	private static final Identifier CHANNEL = new Identifier("fabric", "outbound_queue_test");
+	private static final OutboundRateLimits.Limit SLOW = new OutboundRateLimits.Limit(OutboundRateLimits.Priority.NORMAL, 1, 100);
+
+	private final OutboundQueue queue = new OutboundQueue();
+
+	private static Packet<?> payload(int size) {
+		return new CustomPayloadS2CPacket(CHANNEL, new PacketByteBuf(Unpooled.buffer(size).writeZero(size)));
+	}
+
+	private List<Packet<?>> drain(boolean backlogged) {
+		List<Packet<?>> sent = new ArrayList<>();
+		queue.drain(backlogged, (packet, callbacks) -> sent.add(packet));
+		return sent;
+	}
+
+	@AfterEach
+	public void removeLimit() {
+		OutboundRateLimits.removeLimit(CHANNEL);
+	}
+
+	@Test
+	public void unlimitedChannelIsNotQueued() {
+		assertFalse(queue.offer(CHANNEL, payload(1000), null, true));
+		assertTrue(queue.getStats().isEmpty());
+	}
+
+	@Test
+	public void defersOnceBurstIsSpent() {
+		OutboundRateLimits.setLimit(CHANNEL, SLOW);
+
+		assertFalse(queue.offer(CHANNEL, payload(60), null, false));
+		assertTrue(queue.offer(CHANNEL, payload(60), null, false));
+		// Later payloads queue up behind, even if they would fit in the bucket.
+		assertTrue(queue.offer(CHANNEL, payload(10), null, false));
+		assertTrue(drain(false).isEmpty());
+
+		OutboundRateLimits.QueueStats stats = queue.getStats().get(CHANNEL);
+		assertEquals(2, stats.queuedPackets());
+		assertEquals(70, stats.queuedBytes());
+		assertEquals(1, stats.sentPackets());
+	}
+
+	@Test
+	public void oversizedPayloadIsSentWhenBucketIsFull() {
+		OutboundRateLimits.setLimit(CHANNEL, SLOW);
+
+		assertFalse(queue.offer(CHANNEL, payload(500), null, false));
+		// The bucket is now in debt.
+		assertTrue(queue.offer(CHANNEL, payload(1), null, false));
+	}
+
+	@Test
+	public void lowPriorityIsDeferredWhileBacklogged() {
+		OutboundRateLimits.setLimit(CHANNEL, OutboundRateLimits.Limit.of(OutboundRateLimits.Priority.LOW));
+
+		Packet<?> packet = payload(10);
+		assertTrue(queue.offer(CHANNEL, packet, null, true));
+		assertTrue(drain(true).isEmpty());
+		assertEquals(List.of(packet), drain(false));
+	}
+
+	@Test
+	public void removedLimitKeepsOrderThenStopsApplying() {
+		OutboundRateLimits.setLimit(CHANNEL, OutboundRateLimits.Limit.of(OutboundRateLimits.Priority.LOW));
+
+		Packet<?> first = payload(10);
+		Packet<?> second = payload(10);
+		assertTrue(queue.offer(CHANNEL, first, null, true));
+		OutboundRateLimits.removeLimit(CHANNEL);
+
+		// Still queued behind the payload deferred before the limit was removed.
+		assertTrue(queue.offer(CHANNEL, second, null, true));
+		assertEquals(List.of(first, second), drain(false));
+
+		// Once drained, the channel is no longer limited.
+		assertTrue(queue.getStats().isEmpty());
+		assertFalse(queue.offer(CHANNEL, payload(10), null, true));
+		assertNull(queue.getLimitedChannel(payload(10)));
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.networking.metrics;
+
+import static net.minecraft.server.command.CommandManager.literal;
+
+import java.util.Comparator;
+import java.util.List;
+
+import com.mojang.brigadier.Command;
+
+import net.minecraft.text.Text;
+
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.networking.v1.NetworkingMetrics;
+import net.fabricmc.fabric.test.networking.NetworkingTestmods;
+
+/**
+ * Dumps the networking metrics to the log, busiest channels first. Launch with {@code -Dfabric.networking.metrics=true}
+ * and run {@code /networktestmetrics} in game, or {@code /networktestmetrics reset} to clear the counters.
+ */
+public final class NetworkingMetricsTest implements ModInitializer {
+	@Override
+	public void onInitialize() {
+		CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> {
+			dispatcher.register(literal("networktestmetrics")
+					.executes(ctx -> {
+						if (!NetworkingMetrics.isEnabled()) {
+							ctx.getSource().sendError(Text.literal("Metrics are disabled, launch with -Dfabric.networking.metrics=true"));
+							return 0;
+						}
+
+						List<NetworkingMetrics.ChannelStats> snapshot = NetworkingMetrics.snapshot();
+						snapshot.sort(Comparator.comparingLong(NetworkingMetrics.ChannelStats::bytes).reversed());
+
+						for (NetworkingMetrics.ChannelStats stats : snapshot) {
+							NetworkingTestmods.LOGGER.info("{} {} (player {}): {} packets, {} bytes, {} us handling",
+									stats.outbound() ? "Sent" : "Received", stats.channel(), stats.player(),
+									stats.packets(), stats.bytes(), stats.handlerNanos() / 1000);
+						}
+
+						ctx.getSource().sendFeedback(() -> Text.literal("Dumped the metrics of " + snapshot.size() + " channels to the log"), false);
+						return Command.SINGLE_SUCCESS;
+					})
+					.then(literal("reset").executes(ctx -> {
+						NetworkingMetrics.reset();
+						ctx.getSource().sendFeedback(() -> Text.literal("Reset the networking metrics"), false);
+						return Command.SINGLE_SUCCESS;
+					})));
+		});
+	}
+}
@@ -71,6 +71,15 @@ public static void registerCommand(CommandDispatcher<ServerCommandSource> dispat
 							ServerPlayNetworking.createS2CPacket(TEST_CHANNEL, buf2)));
 					ctx.getSource().getPlayer().networkHandler.sendPacket(packet);
 					return Command.SINGLE_SUCCESS;
+				}))
+				.then(literal("local").executes(ctx -> {
+					// In singleplayer, the client should receive the copy handed over instead of a decoded packet.
+					ServerPlayNetworking.send(ctx.getSource().getPlayer(), new LocalPacket("local packet", false));
+					return Command.SINGLE_SUCCESS;
+				}))
+				.then(literal("record").executes(ctx -> {
+					ServerPlayNetworking.send(ctx.getSource().getPlayer(), RecordPacket.EXAMPLE);
+					return Command.SINGLE_SUCCESS;
 				})));
 	}
 
@@ -100,4 +109,48 @@ public PacketType<?> getType() {
 			return PACKET_TYPE;
 		}
 	}
+
+	/**
+	 * A packet which tells whether it was handed over on a local connection, since {@code handedOver} is not written.
+	 */
+	public record LocalPacket(String message, boolean handedOver) implements FabricPacket {
+		public static final PacketType<LocalPacket> PACKET_TYPE = PacketType.create(NetworkingTestmods.id("local_packet"), LocalPacket::new,
+				packet -> new LocalPacket(packet.message, true));
+
+		public LocalPacket(PacketByteBuf buf) {
+			this(buf.readString(), false);
+		}
+
+		@Override
+		public void write(PacketByteBuf buf) {
+			buf.writeString(this.message);
+		}
+
+		@Override
+		public PacketType<?> getType() {
+			return PACKET_TYPE;
+		}
+	}
+
+	/**
+	 * A packet whose reader and writer are generated, with a nested record and var int components.
+	 */
+	public record RecordPacket(String message, @PacketType.VarInt int count, @PacketType.VarInt long total, Nested nested) implements FabricPacket {
+		public static final PacketType<RecordPacket> PACKET_TYPE = PacketType.ofRecord(NetworkingTestmods.id("record_packet"), RecordPacket.class);
+		// Var ints of both signs and widths.
+		public static final RecordPacket EXAMPLE = new RecordPacket("record packet", 300, -1L, new Nested(true, 0.5, NetworkingTestmods.id("nested")));
+
+		@Override
+		public void write(PacketByteBuf buf) {
+			PACKET_TYPE.write(this, buf);
+		}
+
+		@Override
+		public PacketType<?> getType() {
+			return PACKET_TYPE;
+		}
+
+		public record Nested(boolean flag, double ratio, Identifier id) {
+		}
+	}
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.networking.stream;
+
+import static net.minecraft.server.command.CommandManager.literal;
+
+import com.mojang.brigadier.Command;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.networking.v1.PayloadStreams;
+import net.fabricmc.fabric.impl.networking.StreamConnection;
+import net.fabricmc.fabric.test.networking.NetworkingTestmods;
+
+/**
+ * Streams a payload spanning several windows to the client, which streams it back to be compared.
+ * Run {@code /networkteststream} in game.
+ */
+public final class NetworkingStreamTest implements ModInitializer {
+	public static final Identifier ECHO_CHANNEL = NetworkingTestmods.id("stream_echo");
+	public static final int LENGTH = 4 * StreamConnection.WINDOW_SIZE + 123;
+
+	public static ByteBuf createPayload() {
+		ByteBuf payload = Unpooled.buffer(LENGTH);
+
+		for (int i = 0; i < LENGTH; i++) {
+			payload.writeByte(i * 31 + (i >>> 8));
+		}
+
+		return payload;
+	}
+
+	@Override
+	public void onInitialize() {
+		CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> {
+			dispatcher.register(literal("networkteststream").executes(ctx -> {
+				ByteBuf payload = createPayload();
+				PayloadStreams.send(ctx.getSource().getPlayerOrThrow(), ECHO_CHANNEL, payload).completion().whenComplete((result, error) -> {
+					NetworkingTestmods.LOGGER.info("Streamed {} bytes to the client, error: {}", LENGTH, error);
+				});
+				payload.release();
+				return Command.SINGLE_SUCCESS;
+			}));
+		});
+
+		PayloadStreams.registerGlobalReceiver(ECHO_CHANNEL, (player, length) -> {
+			if (length != LENGTH) {
+				return null;
+			}
+
+			return PayloadStreams.StreamHandler.collecting(length, echoed -> {
+				ByteBuf expected = createPayload();
+				boolean matches = ByteBufUtil.equals(expected, echoed);
+				expected.release();
+				echoed.release();
+
+				NetworkingTestmods.LOGGER.info("Received streamed echo of {} bytes, matches: {}", length, matches);
+				player.server.execute(() -> player.sendMessage(Text.literal("Stream echo " + (matches ? "matches" : "does not match"))));
+			});
+		});
+	}
+}
@@ -19,6 +19,7 @@
 
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.text.Text;
 
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
@@ -29,7 +30,18 @@
 public final class NetworkingPlayPacketClientTest implements ClientModInitializer, ClientPlayNetworking.PlayPacketHandler<NetworkingPlayPacketTest.OverlayPacket> {
 	@Override
 	public void onInitializeClient() {
-		ClientPlayConnectionEvents.INIT.register((handler, client) -> ClientPlayNetworking.registerReceiver(NetworkingPlayPacketTest.OverlayPacket.PACKET_TYPE, this));
+		ClientPlayConnectionEvents.INIT.register((handler, client) -> {
+			ClientPlayNetworking.registerReceiver(NetworkingPlayPacketTest.OverlayPacket.PACKET_TYPE, this);
+			ClientPlayNetworking.registerReceiver(NetworkingPlayPacketTest.LocalPacket.PACKET_TYPE, (packet, player, sender) -> {
+				boolean expected = handler.getConnection().isLocal();
+				Text message = Text.literal(packet.message() + ", handed over: " + packet.handedOver() + (packet.handedOver() == expected ? "" : " (unexpected)"));
+				MinecraftClient.getInstance().inGameHud.setOverlayMessage(message, false);
+			});
+			ClientPlayNetworking.registerReceiver(NetworkingPlayPacketTest.RecordPacket.PACKET_TYPE, (packet, player, sender) -> {
+				boolean matches = packet.equals(NetworkingPlayPacketTest.RecordPacket.EXAMPLE);
+				MinecraftClient.getInstance().inGameHud.setOverlayMessage(Text.literal(packet + (matches ? "" : " (unexpected)")), false);
+			});
+		});
 	}
 
 	@Override
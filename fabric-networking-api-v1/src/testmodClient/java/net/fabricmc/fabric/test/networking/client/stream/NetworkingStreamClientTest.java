@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.networking.client.stream;
+
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPayloadStreams;
+import net.fabricmc.fabric.api.networking.v1.PayloadStreams;
+import net.fabricmc.fabric.test.networking.stream.NetworkingStreamTest;
+
+public final class NetworkingStreamClientTest implements ClientModInitializer {
+	@Override
+	public void onInitializeClient() {
+		ClientPayloadStreams.registerGlobalReceiver(NetworkingStreamTest.ECHO_CHANNEL, length -> PayloadStreams.StreamHandler.collecting(length, payload -> {
+			ClientPayloadStreams.send(NetworkingStreamTest.ECHO_CHANNEL, payload);
+			payload.release();
+		}));
+	}
+}
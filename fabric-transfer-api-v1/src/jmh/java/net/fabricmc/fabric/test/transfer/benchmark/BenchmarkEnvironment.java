@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.transfer.benchmark;
+
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import org.quiltmc.loader.impl.launch.knot.Knot;
+
+import net.fabricmc.api.EnvType;
+
+/**
+ * Starts the loader inside a forked benchmark JVM, like the JUnit integration of the loader does,
+ * so that the registries can be bootstrapped and the transfer API mixins are applied.
+ *
+ * <p>The benchmark classes are loaded by JMH from the application class loader, before any mixin is set up,
+ * so they must not reference game classes. They load a workload class through the game class loader instead,
+ * and only talk to it through JDK interfaces.
+ */
+final class BenchmarkEnvironment {
+	private static ClassLoader gameClassLoader;
+
+	private BenchmarkEnvironment() {
+	}
+
+	/**
+	 * Creates the operations of a workload, keyed by the name of the benchmark method that runs them.
+	 *
+	 * @param workload the simple name of a class of this package implementing {@code IntFunction<Map<String, LongSupplier>>}
+	 * @param param    the benchmark parameter, passed to the workload
+	 */
+	@SuppressWarnings("unchecked")
+	static Map<String, LongSupplier> load(String workload, int param) {
+		try {
+			Class<?> type = Class.forName(BenchmarkEnvironment.class.getPackageName() + "." + workload, true, gameClassLoader());
+			return ((IntFunction<Map<String, LongSupplier>>) type.getConstructor().newInstance()).apply(param);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Failed to load benchmark workload " + workload, e);
+		}
+	}
+
+	private static synchronized ClassLoader gameClassLoader() {
+		if (gameClassLoader == null) {
+			Thread thread = Thread.currentThread();
+			ClassLoader previous = thread.getContextClassLoader();
+
+			try {
+				gameClassLoader = new Knot(EnvType.SERVER).init(new String[0]);
+			} finally {
+				thread.setContextClassLoader(previous);
+			}
+		}
+
+		return gameClassLoader;
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.transfer.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@code SingleFluidStorage}, see {@link FluidStorageWorkload}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FluidStorageBenchmark {
+	private LongSupplier insert;
+	private LongSupplier extract;
+	private LongSupplier move;
+
+	@Setup
+	public void setup() {
+		Map<String, LongSupplier> workload = BenchmarkEnvironment.load("FluidStorageWorkload", 0);
+		insert = workload.get("insert");
+		extract = workload.get("extract");
+		move = workload.get("move");
+	}
+
+	@Benchmark
+	public long insert() {
+		return insert.getAsLong();
+	}
+
+	@Benchmark
+	public long extract() {
+		return extract.getAsLong();
+	}
+
+	@Benchmark
+	public long move() {
+		return move.getAsLong();
+	}
+}
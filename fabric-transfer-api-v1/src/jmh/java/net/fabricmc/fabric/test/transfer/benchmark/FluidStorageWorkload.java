@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.transfer.benchmark;
+
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import net.minecraft.fluid.Fluids;
+
+import net.fabricmc.fabric.api.transfer.v1.fluid.FluidConstants;
+import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariant;
+import net.fabricmc.fabric.api.transfer.v1.fluid.base.SingleFluidStorage;
+import net.fabricmc.fabric.api.transfer.v1.storage.StorageUtil;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+
+/**
+ * The operations of {@link FluidStorageBenchmark}.
+ */
+public final class FluidStorageWorkload implements IntFunction<Map<String, LongSupplier>> {
+	@Override
+	public Map<String, LongSupplier> apply(int unused) {
+		BenchmarkBootstrap.initialize();
+
+		FluidVariant water = FluidVariant.of(Fluids.WATER);
+		SingleFluidStorage source = SingleFluidStorage.withFixedCapacity(16 * FluidConstants.BUCKET, () -> { });
+		source.variant = water;
+		source.amount = 8 * FluidConstants.BUCKET;
+		SingleFluidStorage target = SingleFluidStorage.withFixedCapacity(16 * FluidConstants.BUCKET, () -> { });
+
+		return Map.of(
+				"insert", () -> {
+					try (Transaction transaction = Transaction.openOuter()) {
+						return source.insert(water, FluidConstants.BUCKET, transaction);
+					}
+				},
+				"extract", () -> {
+					try (Transaction transaction = Transaction.openOuter()) {
+						return source.extract(water, FluidConstants.BUCKET, transaction);
+					}
+				},
+				"move", () -> {
+					try (Transaction transaction = Transaction.openOuter()) {
+						return StorageUtil.move(source, target, variant -> true, FluidConstants.BUCKET, transaction);
+					}
+				}
+		);
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.transfer.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@code InventoryStorage} with half full inventories of a few sizes, see {@link InventoryStorageWorkload}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InventoryStorageBenchmark {
+	@Param({"9", "54", "1000"})
+	public int slots;
+
+	private LongSupplier insertStacking;
+	private LongSupplier insertNewVariant;
+	private LongSupplier extract;
+	private LongSupplier simulateExtractMissing;
+	private LongSupplier moveAll;
+	private LongSupplier lookupWrapper;
+
+	@Setup
+	public void setup() {
+		Map<String, LongSupplier> workload = BenchmarkEnvironment.load("InventoryStorageWorkload", slots);
+		insertStacking = workload.get("insertStacking");
+		insertNewVariant = workload.get("insertNewVariant");
+		extract = workload.get("extract");
+		simulateExtractMissing = workload.get("simulateExtractMissing");
+		moveAll = workload.get("moveAll");
+		lookupWrapper = workload.get("lookupWrapper");
+	}
+
+	@Benchmark
+	public long insertStacking() {
+		return insertStacking.getAsLong();
+	}
+
+	@Benchmark
+	public long insertNewVariant() {
+		return insertNewVariant.getAsLong();
+	}
+
+	@Benchmark
+	public long extract() {
+		return extract.getAsLong();
+	}
+
+	@Benchmark
+	public long simulateExtractMissing() {
+		return simulateExtractMissing.getAsLong();
+	}
+
+	@Benchmark
+	public long moveAll() {
+		return moveAll.getAsLong();
+	}
+
+	@Benchmark
+	public long lookupWrapper() {
+		return lookupWrapper.getAsLong();
+	}
+}
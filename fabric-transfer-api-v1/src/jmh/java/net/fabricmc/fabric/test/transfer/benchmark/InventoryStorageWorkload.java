@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.transfer.benchmark;
+
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+
+import net.fabricmc.fabric.api.transfer.v1.item.InventoryStorage;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.fabricmc.fabric.api.transfer.v1.storage.StorageUtil;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+
+/**
+ * The operations of {@link InventoryStorageBenchmark}, for an inventory with the given amount of slots.
+ */
+public final class InventoryStorageWorkload implements IntFunction<Map<String, LongSupplier>> {
+	@Override
+	public Map<String, LongSupplier> apply(int slots) {
+		BenchmarkBootstrap.initialize();
+
+		NbtCompound nbt = new NbtCompound();
+		nbt.putInt("energy", 42);
+		ItemVariant stone = ItemVariant.of(Items.STONE);
+		ItemVariant taggedDiamond = ItemVariant.of(Items.DIAMOND, nbt);
+
+		// Half full source: alternate stone and tagged diamonds, leaving the second half empty.
+		SimpleInventory sourceInventory = new SimpleInventory(slots);
+
+		for (int i = 0; i < slots / 2; ++i) {
+			sourceInventory.setStack(i, (i % 2 == 0 ? stone : taggedDiamond).toStack(32));
+		}
+
+		InventoryStorage source = InventoryStorage.of(sourceInventory, null);
+		InventoryStorage target = InventoryStorage.of(new SimpleInventory(slots), null);
+
+		return Map.of(
+				"insertStacking", () -> {
+					try (Transaction transaction = Transaction.openOuter()) {
+						return source.insert(stone, 64, transaction);
+					}
+				},
+				"insertNewVariant", () -> {
+					try (Transaction transaction = Transaction.openOuter()) {
+						return source.insert(ItemVariant.of(Items.COBBLESTONE), 64, transaction);
+					}
+				},
+				"extract", () -> {
+					try (Transaction transaction = Transaction.openOuter()) {
+						return source.extract(taggedDiamond, 64, transaction);
+					}
+				},
+				"simulateExtractMissing", () -> StorageUtil.simulateExtract(source, ItemVariant.of(Items.DIRT), 64, null),
+				"moveAll", () -> {
+					try (Transaction transaction = Transaction.openOuter()) {
+						return StorageUtil.move(source, target, variant -> true, Long.MAX_VALUE, transaction);
+					}
+				},
+				// Measures InventoryStorage.of itself, which is called by every API lookup of a vanilla inventory.
+				"lookupWrapper", () -> InventoryStorage.of(sourceInventory, null).getSlots().size()
+		);
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.transfer.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks transactions nested at increasing depths, see {@link NestedTransactionWorkload}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NestedTransactionBenchmark {
+	@Param({"1", "2", "4", "8"})
+	public int depth;
+
+	private LongSupplier nestedInsert;
+	private LongSupplier nestedOpenClose;
+
+	@Setup
+	public void setup() {
+		Map<String, LongSupplier> workload = BenchmarkEnvironment.load("NestedTransactionWorkload", depth);
+		nestedInsert = workload.get("nestedInsert");
+		nestedOpenClose = workload.get("nestedOpenClose");
+	}
+
+	@Benchmark
+	public long nestedInsert() {
+		return nestedInsert.getAsLong();
+	}
+
+	@Benchmark
+	public long nestedOpenClose() {
+		return nestedOpenClose.getAsLong();
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.transfer.benchmark;
+
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import net.minecraft.fluid.Fluids;
+
+import net.fabricmc.fabric.api.transfer.v1.fluid.FluidConstants;
+import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariant;
+import net.fabricmc.fabric.api.transfer.v1.fluid.base.SingleFluidStorage;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
+
+/**
+ * The operations of {@link NestedTransactionBenchmark}, for transactions nested up to the given depth.
+ */
+public final class NestedTransactionWorkload implements IntFunction<Map<String, LongSupplier>> {
+	private int depth;
+	private SingleFluidStorage tank;
+	private FluidVariant water;
+
+	@Override
+	public Map<String, LongSupplier> apply(int depth) {
+		BenchmarkBootstrap.initialize();
+
+		this.depth = depth;
+		water = FluidVariant.of(Fluids.WATER);
+		tank = SingleFluidStorage.withFixedCapacity(FluidConstants.BUCKET, () -> { });
+
+		return Map.of(
+				"nestedInsert", () -> {
+					try (Transaction transaction = Transaction.openOuter()) {
+						return insertNested(transaction, 1);
+					}
+				},
+				"nestedOpenClose", () -> {
+					try (Transaction transaction = Transaction.openOuter()) {
+						return openNested(transaction, 1);
+					}
+				}
+		);
+	}
+
+	private long insertNested(TransactionContext parent, int currentDepth) {
+		long inserted = tank.insert(water, 1, parent);
+
+		if (currentDepth < depth) {
+			try (Transaction nested = parent.openNested()) {
+				inserted += insertNested(nested, currentDepth + 1);
+				nested.commit();
+			}
+		}
+
+		return inserted;
+	}
+
+	private long openNested(TransactionContext parent, int currentDepth) {
+		if (currentDepth >= depth) {
+			return currentDepth;
+		}
+
+		try (Transaction nested = parent.openNested()) {
+			long result = openNested(nested, currentDepth + 1);
+			nested.commit();
+			return result;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.transfer.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the transfer API benchmarks, taking the usual JMH command line options.
+ *
+ * <p>The benchmarks run in forked JVMs, which start the loader themselves, see {@link BenchmarkEnvironment}.
+ * The system properties set up by the development launcher are forwarded to them so that the loader finds the game
+ * and the mods, and the GC profiler is enabled by default to report allocation rates.
+ */
+public final class TransferBenchmarks {
+	private static final List<String> FORWARDED_PROPERTIES = List.of("fabric.", "loader.", "log4j", "mixin.");
+
+	private TransferBenchmarks() {
+	}
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		// Loom passes nogui to server runs, which JMH would take for a benchmark name.
+		CommandLineOptions commandLine = new CommandLineOptions(Arrays.stream(args).filter(arg -> !arg.equals("nogui")).toArray(String[]::new));
+		OptionsBuilder options = new OptionsBuilder();
+		options.parent(commandLine);
+
+		List<String> jvmArgs = new ArrayList<>(commandLine.getJvmArgsAppend().orElse(List.of()));
+
+		for (String name : System.getProperties().stringPropertyNames()) {
+			if (FORWARDED_PROPERTIES.stream().anyMatch(name::startsWith)) {
+				jvmArgs.add("-D" + name + "=" + System.getProperty(name));
+			}
+		}
+
+		options.jvmArgsAppend(jvmArgs.toArray(new String[0]));
+
+		if (commandLine.getProfilers().isEmpty()) {
+			options.addProfiler(GCProfiler.class);
+		}
+
+		new Runner(options.build()).run();
+	}
+}
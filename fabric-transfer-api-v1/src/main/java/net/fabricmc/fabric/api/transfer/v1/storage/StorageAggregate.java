@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.transfer.v1.storage;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An incremental version of {@link StorageUtil#aggregate}, that uses {@link Storage#getVersion()}
+ * to only rescan a storage if it might have changed since the previous query.
+ *
+ * <p>Here is a usage example, for a block entity that needs the contents of a neighboring storage every tick:
+ * <pre>{@code
+ * // Created once, for example as a field of the block entity.
+ * StorageAggregate<ItemVariant> neighborContents = new StorageAggregate<>(variant -> true);
+ *
+ * // Every tick: only rescans the storage if it changed.
+ * Object2LongMap<ItemVariant> contents = neighborContents.update(ItemStorage.SIDED.find(world, pos, direction));
+ * }</pre>
+ *
+ * <p>The returned map is reused between queries, and is only valid until the next call to {@link #update}.
+ * Like {@link Storage#getVersion()}, {@link #update} may not be called during a transaction.
+ * This class is not thread-safe.
+ *
+ * @param <T> The type of the stored resources.
+ *
+ * <b>Experimental feature</b>, we reserve the right to remove or change it without further notice.
+ * The transfer API is a complex addition, and we want to be able to correct possible design mistakes.
+ */
+@ApiStatus.Experimental
+public final class StorageAggregate<T> {
+	private final Predicate<T> filter;
+	private final Object2LongOpenHashMap<T> amounts = new Object2LongOpenHashMap<>();
+	private final Object2LongMap<T> unmodifiableAmounts = Object2LongMaps.unmodifiable(amounts);
+	@Nullable
+	private Storage<T> lastStorage = null;
+	private long lastVersion;
+
+	/**
+	 * Create a new aggregate.
+	 *
+	 * @param filter The filter. Only resources for which this filter returns {@code true} will be counted.
+	 *               This filter will never be tested with a blank resource.
+	 */
+	public StorageAggregate(Predicate<T> filter) {
+		this.filter = Objects.requireNonNull(filter, "Filter may not be null");
+	}
+
+	/**
+	 * Return the total stored amount of each resource in the passed storage matching the filter.
+	 * If the storage is the same instance as in the previous call, and its version did not change,
+	 * the previous result is returned without scanning the storage again.
+	 *
+	 * @param storage The storage to inspect, may be null.
+	 * @return An unmodifiable view of the amounts, only valid until the next call to this function.
+	 * @throws IllegalStateException If called during a transaction.
+	 */
+	public Object2LongMap<T> update(@Nullable Storage<T> storage) {
+		if (storage == null) {
+			invalidate();
+			amounts.clear();
+			return unmodifiableAmounts;
+		}
+
+		long version = storage.getVersion();
+
+		if (storage != lastStorage || version != lastVersion) {
+			amounts.clear();
+			StorageUtil.aggregate(storage, filter, amounts);
+			lastStorage = storage;
+			lastVersion = version;
+		}
+
+		return unmodifiableAmounts;
+	}
+
+	/**
+	 * Force the next call to {@link #update} to rescan the storage,
+	 * for example because the filter now returns a different result.
+	 */
+	public void invalidate() {
+		lastStorage = null;
+	}
+}
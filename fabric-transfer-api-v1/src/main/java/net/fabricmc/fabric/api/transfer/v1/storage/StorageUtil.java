@@ -21,6 +21,8 @@
 import java.util.Objects;
 import java.util.function.Predicate;
 
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
@@ -389,6 +391,50 @@ public static <T> ResourceAmount<T> findExtractableContent(@Nullable Storage<T>
 		return null;
 	}
 
+	/**
+	 * Compute the total stored amount of each resource in the passed storage, in a single pass over its contents.
+	 *
+	 * @see #aggregate(Storage, Predicate, Object2LongMap)
+	 * @return A new map from each non-blank stored resource matching the filter to its total stored amount.
+	 */
+	public static <T> Object2LongMap<T> aggregate(@Nullable Storage<T> storage, Predicate<T> filter) {
+		return aggregate(storage, filter, new Object2LongOpenHashMap<>());
+	}
+
+	/**
+	 * Add the total stored amount of each resource in the passed storage to an existing map, in a single pass over its contents.
+	 * This is a cheaper alternative to calling {@link #findStoredResource} or {@link #simulateExtract} for every resource.
+	 *
+	 * <p>Note that this only reports what the storage contains, and not what can be extracted from it.
+	 * Amounts are summed across all the views containing the same resource, and saturate at {@link Long#MAX_VALUE}.
+	 * The passed map is not cleared first, so it can be used to accumulate the contents of multiple storages.
+	 * {@link StorageAggregate} can be used to avoid rescanning a storage that hasn't changed.
+	 *
+	 * @param storage The storage to inspect, may be null.
+	 * @param filter The filter. Only resources for which this filter returns {@code true} will be counted.
+	 *               This filter will never be tested with a blank resource.
+	 * @param into The map to which the amounts are added.
+	 * @param <T> The type of the stored resources.
+	 * @return The passed map.
+	 */
+	public static <T> Object2LongMap<T> aggregate(@Nullable Storage<T> storage, Predicate<T> filter, Object2LongMap<T> into) {
+		Objects.requireNonNull(filter, "Filter may not be null");
+		Objects.requireNonNull(into, "Target map may not be null");
+		if (storage == null) return into;
+
+		for (StorageView<T> view : storage.nonEmptyViews()) {
+			T resource = view.getResource();
+
+			if (filter.test(resource)) {
+				long total = into.getOrDefault(resource, 0L) + view.getAmount();
+				// Saturate instead of overflowing.
+				into.put(resource, total < 0 ? Long.MAX_VALUE : total);
+			}
+		}
+
+		return into;
+	}
+
 	/**
 	 * Compute the comparator output for a storage, similar to {@link ScreenHandler#calculateComparatorOutput(Inventory)}.
 	 *
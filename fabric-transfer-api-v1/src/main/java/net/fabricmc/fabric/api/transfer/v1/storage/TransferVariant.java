@@ -112,6 +112,7 @@ default NbtCompound copyOrCreateNbt() {
 	 * Write this variant into a packet byte buffer. Subinterfaces should have a matching static {@code fromPacket}.
 	 *
 	 * <p>Implementation note: Objects are saved using their raw registry integer id.
+	 * When the same variants are sent repeatedly over a connection, a {@link VariantPacketCodec} can be used instead.
 	 */
 	void toPacket(PacketByteBuf buf);
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.transfer.v1.storage;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import org.jetbrains.annotations.ApiStatus;
+
+import net.minecraft.network.PacketByteBuf;
+
+import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariant;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+
+/**
+ * A stateful codec that writes transfer variants to packets using a dictionary shared by both sides of a connection.
+ *
+ * <p>The first time a variant is written, it is sent in full using {@link TransferVariant#toPacket} together with a dictionary index.
+ * Subsequent writes of the same variant only send the index as a var int. The dictionary has a fixed capacity,
+ * and the least recently written variant is evicted when a new variant needs to be added to a full dictionary.
+ * The eviction is decided by the writing side and communicated in the packet, so the reading side never needs to guess.
+ *
+ * <p>This is mostly useful for mods that frequently sync the contents of large storages to the client, for example terminals or drawers,
+ * as the same variants are then sent many times, often with a large NBT tag.
+ *
+ * <p>Usage notes:
+ * <ul>
+ *     <li>One codec instance should be created for each connection and each direction: the sender only calls {@link #write},
+ *     and the receiver only calls {@link #read} on its own instance, created with the same capacity.</li>
+ *     <li>Packets must be read in the order in which they were written, and no written packet may be dropped.
+ *     This is the case for packets sent over the same connection.</li>
+ *     <li>If the sender needs to start over, for example when a screen is reopened, both sides must call {@link #reset} at the same point.</li>
+ *     <li>This class is not thread-safe.</li>
+ * </ul>
+ *
+ * @param <T> The type of the variants.
+ *
+ * <b>Experimental feature</b>, we reserve the right to remove or change it without further notice.
+ * The transfer API is a complex addition, and we want to be able to correct possible design mistakes.
+ */
+@ApiStatus.Experimental
+public final class VariantPacketCodec<T extends TransferVariant<?>> {
+	/**
+	 * Default dictionary capacity, used by {@link #ofItems()} and {@link #ofFluids()}.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private final int capacity;
+	private final Function<PacketByteBuf, T> reader;
+	/**
+	 * Write side: maps each variant to its dictionary index, ordered from least to most recently written.
+	 */
+	private final Object2IntLinkedOpenHashMap<T> indices = new Object2IntLinkedOpenHashMap<>();
+	/**
+	 * Read side: the variant at each dictionary index.
+	 */
+	private final Object[] entries;
+
+	/**
+	 * Create a new codec for item variants, with the {@linkplain #DEFAULT_CAPACITY default capacity}.
+	 */
+	public static VariantPacketCodec<ItemVariant> ofItems() {
+		return ofItems(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a new codec for item variants.
+	 *
+	 * @param capacity The maximum number of variants in the dictionary. Must be the same on both sides of the connection.
+	 */
+	public static VariantPacketCodec<ItemVariant> ofItems(int capacity) {
+		return new VariantPacketCodec<>(capacity, ItemVariant::fromPacket);
+	}
+
+	/**
+	 * Create a new codec for fluid variants, with the {@linkplain #DEFAULT_CAPACITY default capacity}.
+	 */
+	public static VariantPacketCodec<FluidVariant> ofFluids() {
+		return ofFluids(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a new codec for fluid variants.
+	 *
+	 * @param capacity The maximum number of variants in the dictionary. Must be the same on both sides of the connection.
+	 */
+	public static VariantPacketCodec<FluidVariant> ofFluids(int capacity) {
+		return new VariantPacketCodec<>(capacity, FluidVariant::fromPacket);
+	}
+
+	/**
+	 * Create a new codec.
+	 *
+	 * @param capacity The maximum number of variants in the dictionary. Must be the same on both sides of the connection.
+	 * @param reader The function used to read a full variant from a packet, for example {@link ItemVariant#fromPacket}.
+	 */
+	public VariantPacketCodec(int capacity, Function<PacketByteBuf, T> reader) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive, but it is: " + capacity);
+		}
+
+		this.capacity = capacity;
+		this.reader = Objects.requireNonNull(reader, "Reader may not be null.");
+		this.entries = new Object[capacity];
+		this.indices.defaultReturnValue(-1);
+	}
+
+	/**
+	 * Write a variant to the packet, sending it in full only if the receiving side doesn't know it yet.
+	 */
+	public void write(PacketByteBuf buf, T variant) {
+		Objects.requireNonNull(variant, "Variant may not be null.");
+		int index = indices.getAndMoveToLast(variant);
+
+		if (index >= 0) {
+			// Known variant: only send a reference.
+			buf.writeVarInt(index + 1);
+			return;
+		}
+
+		if (indices.size() < capacity) {
+			index = indices.size();
+		} else {
+			// Evict the least recently written variant and reuse its index.
+			index = indices.removeFirstInt();
+		}
+
+		indices.put(variant, index);
+		buf.writeVarInt(0);
+		buf.writeVarInt(index);
+		variant.toPacket(buf);
+	}
+
+	/**
+	 * Read a variant from the packet, assuming it was written using {@link #write} on the matching codec of the other side.
+	 *
+	 * @throws IllegalStateException If the packet references an unknown dictionary entry.
+	 */
+	@SuppressWarnings("unchecked")
+	public T read(PacketByteBuf buf) {
+		int reference = buf.readVarInt();
+
+		if (reference == 0) {
+			int index = buf.readVarInt();
+			checkIndex(index);
+			T variant = reader.apply(buf);
+			entries[index] = variant;
+			return variant;
+		}
+
+		int index = reference - 1;
+		checkIndex(index);
+		Object variant = entries[index];
+
+		if (variant == null) {
+			throw new IllegalStateException("Packet references unknown variant dictionary entry " + index + ". Were packets dropped or reordered?");
+		}
+
+		return (T) variant;
+	}
+
+	/**
+	 * Clear the dictionary. Must be done on both sides at the same point of the packet stream.
+	 */
+	public void reset() {
+		indices.clear();
+		Arrays.fill(entries, null);
+	}
+
+	/**
+	 * Return the maximum number of variants in the dictionary.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= capacity) {
+			throw new IllegalStateException("Variant dictionary index " + index + " is out of bounds for capacity " + capacity + ".");
+		}
+	}
+}
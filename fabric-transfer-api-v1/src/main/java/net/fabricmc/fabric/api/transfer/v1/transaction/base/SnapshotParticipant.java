@@ -25,6 +25,7 @@
 
 import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
+import net.fabricmc.fabric.impl.transfer.transaction.TransactionMetrics;
 
 /**
  * A base participant implementation that modifies itself during transactions,
@@ -103,6 +104,10 @@ public void updateSnapshots(TransactionContext transaction) {
 			T snapshot = createSnapshot();
 			Objects.requireNonNull(snapshot, "Snapshot may not be null!");
 
+			if (TransactionMetrics.ENABLED) {
+				TransactionMetrics.onSnapshotCreated();
+			}
+
 			snapshots.set(transaction.nestingDepth(), snapshot);
 			transaction.addCloseCallback(this);
 		}
@@ -116,7 +121,7 @@ public void onClose(TransactionContext transaction, Transaction.Result result) {
 		if (result.wasAborted()) {
 			// If the transaction was aborted, we just revert to the state of the snapshot.
 			readSnapshot(snapshot);
-			releaseSnapshot(snapshot);
+			release(snapshot);
 		} else if (transaction.nestingDepth() > 0) {
 			if (snapshots.get(transaction.nestingDepth() - 1) == null) {
 				// No snapshot yet, so move the snapshot one nesting level up.
@@ -125,14 +130,22 @@ public void onClose(TransactionContext transaction, Transaction.Result result) {
 				transaction.getOpenTransaction(transaction.nestingDepth() - 1).addCloseCallback(this);
 			} else {
 				// There is already an older snapshot at the nesting level above, just release the newer one.
-				releaseSnapshot(snapshot);
+				release(snapshot);
 			}
 		} else {
-			releaseSnapshot(snapshot);
+			release(snapshot);
 			transaction.addOuterCloseCallback(this);
 		}
 	}
 
+	private void release(T snapshot) {
+		if (TransactionMetrics.ENABLED) {
+			TransactionMetrics.onSnapshotReleased();
+		}
+
+		releaseSnapshot(snapshot);
+	}
+
 	@Override
 	public void afterOuterClose(Transaction.Result result) {
 		// The result is guaranteed to be COMMITTED,
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.transfer;
+
+import org.quiltmc.qsl.lifecycle.api.event.ServerTickEvents;
+
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.impl.transfer.transaction.TransactionMetrics;
+
+public class TransferApiInitializer implements ModInitializer {
+	@Override
+	public void onInitialize() {
+		if (TransactionMetrics.ENABLED) {
+			ServerTickEvents.END.register(server -> TransactionMetrics.onEndTick());
+		}
+	}
+}
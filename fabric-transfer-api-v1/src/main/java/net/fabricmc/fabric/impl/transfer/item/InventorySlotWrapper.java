@@ -36,7 +36,7 @@
  * A wrapper around a single slot of an inventory.
  * We must ensure that only one instance of this class exists for every inventory slot,
  * or the transaction logic will not work correctly.
- * This is handled by the Map in InventoryStorageImpl.
+ * This is handled by InventoryStorageImpl#of.
  */
 class InventorySlotWrapper extends SingleStackStorage {
 	/**
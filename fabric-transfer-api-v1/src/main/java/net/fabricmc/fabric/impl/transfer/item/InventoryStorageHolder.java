@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.transfer.item;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Internal interface mixed into common inventory classes so that their {@link InventoryStorageImpl} can be stored directly
+ * on the inventory instance, instead of being looked up in the global wrapper map.
+ */
+public interface InventoryStorageHolder {
+	@Nullable
+	InventoryStorageImpl fabric_getInventoryStorage();
+
+	void fabric_setInventoryStorage(InventoryStorageImpl storage);
+}
@@ -44,28 +44,51 @@
  */
 public class InventoryStorageImpl extends CombinedStorage<ItemVariant, SingleSlotStorage<ItemVariant>> implements InventoryStorage {
 	/**
-	 * Global wrapper concurrent map.
+	 * Global wrapper concurrent map, used for inventories that don't implement {@link InventoryStorageHolder}.
 	 *
 	 * <p>A note on GC: weak keys alone are not suitable as the InventoryStorage slots strongly reference the Inventory keys.
 	 * Weak values are suitable, but we have to ensure that the InventoryStorageImpl remains strongly reachable as long as
 	 * one of the slot wrappers refers to it, hence the {@code strongRef} field in {@link InventorySlotWrapper}.
 	 */
-	// TODO: look into promoting the weak reference to a soft reference if building the wrappers becomes a performance bottleneck.
 	// TODO: should have identity semantics?
 	private static final Map<Inventory, InventoryStorageImpl> WRAPPERS = new MapMaker().weakValues().makeMap();
+	/**
+	 * Lock used to ensure that only one wrapper is ever created for a given {@link InventoryStorageHolder}.
+	 */
+	private static final Object HOLDER_LOCK = new Object();
 
 	public static InventoryStorage of(Inventory inventory, @Nullable Direction direction) {
-		InventoryStorageImpl storage = WRAPPERS.computeIfAbsent(inventory, inv -> {
-			if (inv instanceof PlayerInventory playerInventory) {
-				return new PlayerInventoryStorageImpl(playerInventory);
-			} else {
-				return new InventoryStorageImpl(inv);
+		InventoryStorageImpl storage;
+
+		if (inventory instanceof InventoryStorageHolder holder) {
+			storage = holder.fabric_getInventoryStorage();
+
+			if (storage == null) {
+				synchronized (HOLDER_LOCK) {
+					storage = holder.fabric_getInventoryStorage();
+
+					if (storage == null) {
+						storage = createWrapper(inventory);
+						holder.fabric_setInventoryStorage(storage);
+					}
+				}
 			}
-		});
+		} else {
+			storage = WRAPPERS.computeIfAbsent(inventory, InventoryStorageImpl::createWrapper);
+		}
+
 		storage.resizeSlotList();
 		return storage.getSidedWrapper(direction);
 	}
 
+	private static InventoryStorageImpl createWrapper(Inventory inventory) {
+		if (inventory instanceof PlayerInventory playerInventory) {
+			return new PlayerInventoryStorageImpl(playerInventory);
+		} else {
+			return new InventoryStorageImpl(inventory);
+		}
+	}
+
 	final Inventory inventory;
 	/**
 	 * This {@code backingList} is the real list of wrappers.
@@ -76,6 +99,11 @@ public static InventoryStorage of(Inventory inventory, @Nullable Direction direc
 	 * This participant ensures that markDirty is only called once for the entire inventory.
 	 */
 	final MarkDirtyParticipant markDirtyParticipant = new MarkDirtyParticipant();
+	/**
+	 * Cached sided wrappers, indexed by {@link Direction#getId}.
+	 * Sided wrappers don't hold any transaction state, so a race between two threads can at worst create a redundant wrapper.
+	 */
+	private final SidedInventoryStorageImpl[] sidedWrappers = new SidedInventoryStorageImpl[Direction.values().length];
 
 	InventoryStorageImpl(Inventory inventory) {
 		super(Collections.emptyList());
@@ -107,8 +135,17 @@ private void resizeSlotList() {
 	}
 
 	private InventoryStorage getSidedWrapper(@Nullable Direction direction) {
-		if (inventory instanceof SidedInventory && direction != null) {
-			return new SidedInventoryStorageImpl(this, direction);
+		if (inventory instanceof SidedInventory sidedInventory && direction != null) {
+			// The available slots may change over time, so the cached wrapper is only reused if they still match.
+			int[] availableSlots = sidedInventory.getAvailableSlots(direction);
+			SidedInventoryStorageImpl sidedWrapper = sidedWrappers[direction.getId()];
+
+			if (sidedWrapper == null || !sidedWrapper.hasAvailableSlots(availableSlots)) {
+				sidedWrapper = new SidedInventoryStorageImpl(this, direction, availableSlots);
+				sidedWrappers[direction.getId()] = sidedWrapper;
+			}
+
+			return sidedWrapper;
 		} else {
 			return this;
 		}
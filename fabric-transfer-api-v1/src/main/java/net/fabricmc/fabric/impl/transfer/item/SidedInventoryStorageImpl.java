@@ -34,10 +34,19 @@
  */
 class SidedInventoryStorageImpl extends CombinedStorage<ItemVariant, SingleSlotStorage<ItemVariant>> implements InventoryStorage {
 	private final InventoryStorageImpl backingStorage;
+	/**
+	 * Copy of the available slots this wrapper was built for, used to check whether it can be reused.
+	 */
+	private final int[] availableSlots;
 
-	SidedInventoryStorageImpl(InventoryStorageImpl storage, Direction direction) {
-		super(Collections.unmodifiableList(createWrapperList(storage, direction)));
+	SidedInventoryStorageImpl(InventoryStorageImpl storage, Direction direction, int[] availableSlots) {
+		super(Collections.unmodifiableList(createWrapperList(storage, direction, availableSlots)));
 		this.backingStorage = storage;
+		this.availableSlots = availableSlots.clone();
+	}
+
+	boolean hasAvailableSlots(int[] availableSlots) {
+		return Arrays.equals(this.availableSlots, availableSlots);
 	}
 
 	@Override
@@ -45,9 +54,8 @@ public List<SingleSlotStorage<ItemVariant>> getSlots() {
 		return parts;
 	}
 
-	private static List<SingleSlotStorage<ItemVariant>> createWrapperList(InventoryStorageImpl storage, Direction direction) {
+	private static List<SingleSlotStorage<ItemVariant>> createWrapperList(InventoryStorageImpl storage, Direction direction, int[] availableSlots) {
 		SidedInventory inventory = (SidedInventory) storage.inventory;
-		int[] availableSlots = inventory.getAvailableSlots(direction);
 		SidedInventorySlotWrapper[] slots = new SidedInventorySlotWrapper[availableSlots.length];
 
 		for (int i = 0; i < availableSlots.length; ++i) {
@@ -67,6 +67,11 @@ Transaction open() {
 
 		TransactionImpl current = stack.get(currentDepth);
 		current.lifecycle = Transaction.Lifecycle.OPEN;
+
+		if (TransactionMetrics.ENABLED) {
+			TransactionMetrics.onOpen(currentDepth);
+		}
+
 		return current;
 	}
 
@@ -132,6 +137,7 @@ private void close(Result result) {
 			// Note: it is important that we don't let exceptions corrupt the global state of the transaction manager.
 			// That is why any callback has to run inside a try block.
 			RuntimeException closeException = null;
+			long callbackStart = TransactionMetrics.ENABLED ? System.nanoTime() : 0;
 
 			// Invoke callbacks in reverse order
 			for (int i = closeCallbacks.size()-1; i >= 0; i--) {
@@ -151,6 +157,10 @@ private void close(Result result) {
 			if (currentDepth == 0) {
 				lifecycle = Lifecycle.OUTER_CLOSING;
 
+				if (TransactionMetrics.ENABLED) {
+					TransactionMetrics.onOuterClose(outerCloseCallbacks.size());
+				}
+
 				// Invoke outer close callbacks in reverse order
 				for (int i = outerCloseCallbacks.size() - 1; i >= 0; i--) {
 					try {
@@ -167,6 +177,10 @@ private void close(Result result) {
 				outerCloseCallbacks.clear();
 			}
 
+			if (TransactionMetrics.ENABLED) {
+				TransactionMetrics.onClose(result, System.nanoTime() - callbackStart);
+			}
+
 			// Only this check will allow openOuter operations.
 			currentDepth--;
 			lifecycle = Lifecycle.NONE;
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.transfer.transaction;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+
+/**
+ * Opt-in counters for the transaction system, enabled with the {@code fabric.transfer.metrics} system property.
+ *
+ * <p>All recording methods must only be called behind an {@link #ENABLED} check,
+ * so that the JIT can remove the instrumentation entirely when metrics are disabled.
+ * The counters are aggregated across all threads, and are reset at the end of every server tick,
+ * at which point they are published as a {@link Tick} and as a {@link TransactionTickEvent} JFR event.
+ */
+public final class TransactionMetrics {
+	public static final boolean ENABLED = Boolean.getBoolean("fabric.transfer.metrics");
+	/**
+	 * Transactions nested deeper than this are counted in the last bucket.
+	 */
+	public static final int TRACKED_DEPTHS = 8;
+
+	private static final LongAdder[] OPENED = createAdders(TRACKED_DEPTHS);
+	private static final LongAdder COMMITTED = new LongAdder();
+	private static final LongAdder ABORTED = new LongAdder();
+	private static final LongAdder SNAPSHOTS_CREATED = new LongAdder();
+	private static final LongAdder SNAPSHOTS_RELEASED = new LongAdder();
+	private static final LongAdder CLOSE_CALLBACK_NANOS = new LongAdder();
+	private static final LongAdder OUTER_CLOSE_CALLBACKS = new LongAdder();
+	@Nullable
+	private static volatile Tick lastTick = null;
+
+	private TransactionMetrics() {
+	}
+
+	private static LongAdder[] createAdders(int count) {
+		LongAdder[] adders = new LongAdder[count];
+
+		for (int i = 0; i < count; ++i) {
+			adders[i] = new LongAdder();
+		}
+
+		return adders;
+	}
+
+	static void onOpen(int nestingDepth) {
+		OPENED[Math.min(nestingDepth, TRACKED_DEPTHS - 1)].increment();
+	}
+
+	static void onClose(Transaction.Result result, long callbackNanos) {
+		(result.wasCommitted() ? COMMITTED : ABORTED).increment();
+		CLOSE_CALLBACK_NANOS.add(callbackNanos);
+	}
+
+	static void onOuterClose(int outerCloseCallbacks) {
+		OUTER_CLOSE_CALLBACKS.add(outerCloseCallbacks);
+	}
+
+	public static void onSnapshotCreated() {
+		SNAPSHOTS_CREATED.increment();
+	}
+
+	public static void onSnapshotReleased() {
+		SNAPSHOTS_RELEASED.increment();
+	}
+
+	/**
+	 * Return the metrics collected during the last completed server tick,
+	 * or {@code null} if metrics are disabled or no tick has completed yet.
+	 */
+	@Nullable
+	public static Tick getLastTick() {
+		return lastTick;
+	}
+
+	/**
+	 * Publish and reset the counters. Called at the end of every server tick.
+	 */
+	public static void onEndTick() {
+		long[] opened = new long[TRACKED_DEPTHS];
+
+		for (int i = 0; i < TRACKED_DEPTHS; ++i) {
+			opened[i] = OPENED[i].sumThenReset();
+		}
+
+		Tick tick = new Tick(
+				opened,
+				COMMITTED.sumThenReset(),
+				ABORTED.sumThenReset(),
+				SNAPSHOTS_CREATED.sumThenReset(),
+				SNAPSHOTS_RELEASED.sumThenReset(),
+				CLOSE_CALLBACK_NANOS.sumThenReset(),
+				OUTER_CLOSE_CALLBACKS.sumThenReset()
+		);
+		lastTick = tick;
+
+		TransactionTickEvent event = new TransactionTickEvent();
+
+		if (event.shouldCommit()) {
+			event.opened = tick.totalOpened();
+			event.openedOuter = opened[0];
+			event.maxDepth = tick.maxDepth();
+			event.committed = tick.committed();
+			event.aborted = tick.aborted();
+			event.snapshotsCreated = tick.snapshotsCreated();
+			event.snapshotsReleased = tick.snapshotsReleased();
+			event.closeCallbackTime = tick.closeCallbackNanos();
+			event.outerCloseCallbacks = tick.outerCloseCallbacks();
+			event.commit();
+		}
+	}
+
+	/**
+	 * Transaction metrics for a single server tick.
+	 *
+	 * @param openedPerDepth The number of transactions opened at each nesting depth, the last entry also counting deeper transactions.
+	 * @param committed The number of committed transactions.
+	 * @param aborted The number of aborted transactions.
+	 * @param snapshotsCreated The number of snapshots created by {@code SnapshotParticipant}s.
+	 * @param snapshotsReleased The number of snapshots released by {@code SnapshotParticipant}s.
+	 * @param closeCallbackNanos The total time spent running close and outer close callbacks, in nanoseconds.
+	 * @param outerCloseCallbacks The number of outer close callbacks that were invoked.
+	 */
+	public record Tick(long[] openedPerDepth, long committed, long aborted, long snapshotsCreated, long snapshotsReleased,
+			long closeCallbackNanos, long outerCloseCallbacks) {
+		public long totalOpened() {
+			long total = 0;
+
+			for (long opened : openedPerDepth) {
+				total += opened;
+			}
+
+			return total;
+		}
+
+		/**
+		 * Return the deepest nesting depth at which a transaction was opened, or {@code -1} if none was opened.
+		 */
+		public int maxDepth() {
+			for (int i = openedPerDepth.length - 1; i >= 0; --i) {
+				if (openedPerDepth[i] > 0) {
+					return i;
+				}
+			}
+
+			return -1;
+		}
+
+		/**
+		 * Return the fraction of closed transactions that were aborted, or {@code 0} if none was closed.
+		 */
+		public double abortRatio() {
+			long closed = committed + aborted;
+			return closed == 0 ? 0 : (double) aborted / closed;
+		}
+	}
+}
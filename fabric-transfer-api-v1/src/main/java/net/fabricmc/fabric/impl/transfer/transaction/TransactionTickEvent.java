@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.transfer.transaction;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted once per server tick when {@link TransactionMetrics} are enabled.
+ */
+@Name("fabric.transfer.TransactionTick")
+@Label("Transfer API Transactions")
+@Category({"Fabric", "Transfer API"})
+@Description("Transactions and snapshots handled by the transfer API during a server tick.")
+@StackTrace(false)
+class TransactionTickEvent extends jdk.jfr.Event {
+	@Label("Transactions Opened")
+	long opened;
+
+	@Label("Outer Transactions Opened")
+	long openedOuter;
+
+	@Label("Max Nesting Depth")
+	int maxDepth;
+
+	@Label("Committed")
+	long committed;
+
+	@Label("Aborted")
+	long aborted;
+
+	@Label("Snapshots Created")
+	long snapshotsCreated;
+
+	@Label("Snapshots Released")
+	long snapshotsReleased;
+
+	@Label("Close Callback Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long closeCallbackTime;
+
+	@Label("Outer Close Callbacks")
+	long outerCloseCallbacks;
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.mixin.transfer;
+
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+import net.minecraft.block.entity.LockableContainerBlockEntity;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.inventory.SimpleInventory;
+
+import net.fabricmc.fabric.impl.transfer.item.InventoryStorageHolder;
+import net.fabricmc.fabric.impl.transfer.item.InventoryStorageImpl;
+
+/**
+ * Stores the {@link InventoryStorageImpl} of the most common inventories directly on the inventory,
+ * so that repeated {@code InventoryStorage.of} calls don't need to go through the global wrapper map.
+ */
+@Mixin({SimpleInventory.class, LockableContainerBlockEntity.class, PlayerInventory.class})
+public class InventoryStorageHolderMixin implements InventoryStorageHolder {
+	@Unique
+	@Nullable
+	private volatile InventoryStorageImpl fabric_inventoryStorage = null;
+
+	@Override
+	@Nullable
+	public InventoryStorageImpl fabric_getInventoryStorage() {
+		return fabric_inventoryStorage;
+	}
+
+	@Override
+	public void fabric_setInventoryStorage(InventoryStorageImpl storage) {
+		fabric_inventoryStorage = storage;
+	}
+}
@@ -22,11 +22,19 @@
 
 import java.util.Iterator;
 
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+
 import net.minecraft.fluid.Fluids;
+import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
 
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariant;
 import net.fabricmc.fabric.api.transfer.v1.fluid.base.SingleFluidStorage;
+import net.fabricmc.fabric.api.transfer.v1.item.InventoryStorage;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
 import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
+import net.fabricmc.fabric.api.transfer.v1.storage.StorageAggregate;
 import net.fabricmc.fabric.api.transfer.v1.storage.StorageUtil;
 import net.fabricmc.fabric.api.transfer.v1.storage.StorageView;
 import net.fabricmc.fabric.api.transfer.v1.storage.base.FilteringStorage;
@@ -37,6 +45,7 @@ public class BaseStorageTests {
 	public static void run() {
 		testFilteringStorage();
 		testNonEmptyIteratorWithModifiedView();
+		testAggregate();
 	}
 
 	private static void testFilteringStorage() {
@@ -118,4 +127,43 @@ private static void testNonEmptyIteratorWithModifiedView() {
 		// Iterator should not have a next element...
 		assertEquals(false, iterator.hasNext());
 	}
+
+	private static void testAggregate() {
+		SimpleInventory inventory = new SimpleInventory(
+				new ItemStack(Items.DIAMOND, 10),
+				new ItemStack(Items.STONE, 64),
+				ItemStack.EMPTY,
+				new ItemStack(Items.DIAMOND, 5)
+		);
+		InventoryStorage storage = InventoryStorage.of(inventory, null);
+		ItemVariant diamond = ItemVariant.of(Items.DIAMOND);
+		ItemVariant stone = ItemVariant.of(Items.STONE);
+
+		Object2LongMap<ItemVariant> all = StorageUtil.aggregate(storage, iv -> true);
+		assertEquals(2, all.size());
+		assertEquals(15L, all.getLong(diamond));
+		assertEquals(64L, all.getLong(stone));
+
+		Object2LongMap<ItemVariant> diamonds = StorageUtil.aggregate(storage, iv -> iv.isOf(Items.DIAMOND));
+		assertEquals(1, diamonds.size());
+		assertEquals(15L, diamonds.getLong(diamond));
+
+		// Use a wrapper with a manual version to check that the incremental aggregate is only recomputed when the version changes.
+		long[] version = { 0 };
+		Storage<ItemVariant> versioned = new FilteringStorage<>(storage) {
+			@Override
+			public long getVersion() {
+				return version[0];
+			}
+		};
+		StorageAggregate<ItemVariant> aggregate = new StorageAggregate<>(iv -> true);
+		assertEquals(15L, aggregate.update(versioned).getLong(diamond));
+
+		inventory.setStack(2, new ItemStack(Items.DIAMOND, 1));
+		// Same version: cached result.
+		assertEquals(15L, aggregate.update(versioned).getLong(diamond));
+		// New version: the storage is scanned again.
+		version[0]++;
+		assertEquals(16L, aggregate.update(versioned).getLong(diamond));
+	}
 }
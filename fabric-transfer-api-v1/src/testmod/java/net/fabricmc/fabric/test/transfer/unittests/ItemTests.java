@@ -102,6 +102,9 @@ private static void testInventoryWrappers() {
 
 		// Make sure querying a new wrapper returns the same one.
 		if (InventoryStorage.of(testInventory, null) != unsidedWrapper) throw new AssertionError("Wrappers should be ==.");
+		// Sided wrappers are cached as well, as long as the available slots don't change.
+		if (InventoryStorage.of(testInventory, Direction.DOWN) != downWrapper) throw new AssertionError("Sided wrappers should be ==.");
+		if (InventoryStorage.of(testInventory, Direction.UP) == downWrapper) throw new AssertionError("Wrappers for different sides should be !=.");
 
 		for (int iter = 0; iter < 2; ++iter) {
 			// First time, abort.
@@ -34,6 +34,7 @@ public void onInitialize() {
 		SingleVariantItemStorageTests.run();
 		TransactionStateTests.run();
 		UnderlyingViewTests.run();
+		VariantPacketCodecTests.run();
 
 		LoggerFactory.getLogger("fabric-transfer-api-v1 testmod").info("Transfer API unit tests successful.");
 	}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016, 2017, 2018, 2019 FabricMC
+ * Copyright 2022 The Quilt Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.transfer.unittests;
+
+import static net.fabricmc.fabric.test.transfer.unittests.TestUtil.assertEquals;
+
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.fluid.Fluids;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
+
+import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariant;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.fabricmc.fabric.api.transfer.v1.storage.VariantPacketCodec;
+
+class VariantPacketCodecTests {
+	public static void run() {
+		testItemRoundTrip();
+		testEviction();
+		testFluidRoundTrip();
+	}
+
+	private static void testItemRoundTrip() {
+		VariantPacketCodec<ItemVariant> writer = VariantPacketCodec.ofItems();
+		VariantPacketCodec<ItemVariant> reader = VariantPacketCodec.ofItems();
+		NbtCompound nbt = new NbtCompound();
+		nbt.putString("name", "a fairly long custom name that should only be sent once");
+		ItemVariant tagged = ItemVariant.of(Items.DIAMOND_SWORD, nbt);
+		ItemVariant[] variants = { tagged, ItemVariant.of(Items.STONE), ItemVariant.blank(), tagged, ItemVariant.of(Items.STONE), tagged };
+
+		PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+
+		for (ItemVariant variant : variants) {
+			writer.write(buf, variant);
+		}
+
+		for (ItemVariant variant : variants) {
+			assertEquals(variant, reader.read(buf));
+		}
+
+		assertEquals(0, buf.readableBytes());
+
+		// Known variants are sent as a single byte reference.
+		buf.clear();
+		writer.write(buf, tagged);
+		assertEquals(1, buf.readableBytes());
+		assertEquals(tagged, reader.read(buf));
+	}
+
+	private static void testEviction() {
+		VariantPacketCodec<ItemVariant> writer = VariantPacketCodec.ofItems(2);
+		VariantPacketCodec<ItemVariant> reader = VariantPacketCodec.ofItems(2);
+		ItemVariant a = ItemVariant.of(Items.DIRT);
+		ItemVariant b = ItemVariant.of(Items.STONE);
+		ItemVariant c = ItemVariant.of(Items.COBBLESTONE);
+		// a is written again before c, so c should evict b and not a.
+		ItemVariant[] variants = { a, b, a, c, a, b, c };
+
+		PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+
+		for (ItemVariant variant : variants) {
+			writer.write(buf, variant);
+		}
+
+		for (ItemVariant variant : variants) {
+			assertEquals(variant, reader.read(buf));
+		}
+
+		// After a reset on both sides, the dictionary is rebuilt from scratch.
+		writer.reset();
+		reader.reset();
+		buf.clear();
+		writer.write(buf, a);
+		assertEquals(a, reader.read(buf));
+	}
+
+	private static void testFluidRoundTrip() {
+		VariantPacketCodec<FluidVariant> writer = VariantPacketCodec.ofFluids();
+		VariantPacketCodec<FluidVariant> reader = VariantPacketCodec.ofFluids();
+		FluidVariant[] variants = { FluidVariant.of(Fluids.WATER), FluidVariant.of(Fluids.LAVA), FluidVariant.blank(), FluidVariant.of(Fluids.WATER) };
+
+		PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+
+		for (FluidVariant variant : variants) {
+			writer.write(buf, variant);
+		}
+
+		for (FluidVariant variant : variants) {
+			assertEquals(variant, reader.read(buf));
+		}
+	}
+}